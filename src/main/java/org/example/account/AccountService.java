@@ -0,0 +1,35 @@
+package org.example.account;
+
+import org.example.model.Account;
+import org.example.model.AccountServiceException;
+
+import java.util.Optional;
+
+/**
+ * The store of the accounts that the sign-up process creates. An account is created as {@link
+ * AccountStatus#PENDING} and is either activated after the email was confirmed, or deleted if the
+ * email was not confirmed in time.
+ */
+public interface AccountService {
+
+  /**
+   * @throws AccountServiceException if an account with the same id exists already
+   */
+  void create(Account account);
+
+  /** Returns the account with the given id, or an empty optional if it doesn't exist or was deleted. */
+  Optional<Account> find(String accountId);
+
+  /** Returns the status of the account, or an empty optional if it doesn't exist. */
+  Optional<AccountStatus> status(String accountId);
+
+  /**
+   * @throws AccountServiceException if the account doesn't exist or is not pending
+   */
+  void activate(String accountId);
+
+  /**
+   * @throws AccountServiceException if the account doesn't exist or is not pending
+   */
+  void delete(String accountId);
+}
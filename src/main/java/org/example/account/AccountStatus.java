@@ -0,0 +1,8 @@
+package org.example.account;
+
+public enum AccountStatus {
+  /** Created, waiting for the email confirmation. */
+  PENDING,
+  ACTIVE,
+  DELETED
+}
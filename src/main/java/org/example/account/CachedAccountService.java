@@ -0,0 +1,92 @@
+package org.example.account;
+
+import org.example.model.Account;
+
+import java.util.Optional;
+
+/**
+ * Caches the accounts of an {@link AccountService} in a {@link TinyLfuCache} on this node, so that
+ * the workers of the sign-up process can look up the account by its id instead of passing the whole
+ * account around as a process variable.
+ *
+ * <p>An account is removed from the cache when it is activated or deleted. A lookup that read the
+ * account from the store before the account was invalidated doesn't add the stale account to the
+ * cache afterward.
+ */
+public class CachedAccountService implements AccountService {
+
+  private final AccountService store;
+  private final TinyLfuCache<String, Account> cache;
+
+  // guarded by the cache
+  private long invalidations;
+
+  public CachedAccountService(final AccountService store, final int maximumSize) {
+    this.store = store;
+    cache = new TinyLfuCache<>(maximumSize);
+  }
+
+  @Override
+  public void create(final Account account) {
+    store.create(account);
+    cache.put(account.id(), account);
+  }
+
+  @Override
+  public Optional<Account> find(final String accountId) {
+    final Account cached = cache.get(accountId);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+
+    final long invalidationsBeforeLookup;
+    synchronized (cache) {
+      invalidationsBeforeLookup = invalidations;
+    }
+    final Optional<Account> account = store.find(accountId);
+    account.ifPresent(
+        found -> {
+          synchronized (cache) {
+            if (invalidations == invalidationsBeforeLookup) {
+              cache.put(accountId, found);
+            }
+          }
+        });
+    return account;
+  }
+
+  @Override
+  public Optional<AccountStatus> status(final String accountId) {
+    // the status changes, it is always read from the store
+    return store.status(accountId);
+  }
+
+  @Override
+  public void activate(final String accountId) {
+    try {
+      store.activate(accountId);
+    } finally {
+      invalidate(accountId);
+    }
+  }
+
+  @Override
+  public void delete(final String accountId) {
+    try {
+      store.delete(accountId);
+    } finally {
+      invalidate(accountId);
+    }
+  }
+
+  public TinyLfuCache<String, Account> cache() {
+    return cache;
+  }
+
+  private void invalidate(final String accountId) {
+    synchronized (cache) {
+      invalidations += 1;
+      cache.invalidate(accountId);
+    }
+  }
+}
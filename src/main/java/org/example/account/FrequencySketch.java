@@ -0,0 +1,82 @@
+package org.example.account;
+
+/**
+ * Estimates how often a key was accessed recently, in a fixed amount of memory: a count-min sketch
+ * with four rows of 4-bit counters, packed sixteen to a {@code long}. The estimate is the minimum of
+ * the key's counters, so collisions can only overestimate it.
+ *
+ * <p>After {@code 10 * maximumSize} increments, all counters are halved, so the sketch forgets old
+ * accesses and a key that was popular yesterday doesn't stay in the cache forever.
+ */
+final class FrequencySketch {
+
+  private static final long[] SEEDS = {
+    0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final int MAX_COUNT = 15;
+
+  private final long[] table;
+  private final int tableMask;
+  private final int sampleSize;
+  private int size;
+
+  FrequencySketch(final int maximumSize) {
+    final int length = Integer.highestOneBit(Math.max(maximumSize, 8) - 1) << 1;
+    table = new long[length];
+    tableMask = length - 1;
+    sampleSize = 10 * Math.max(maximumSize, 1);
+  }
+
+  /** Returns the estimated number of recent accesses of the key, at most 15. */
+  int frequency(final Object key) {
+    final int hash = spread(key.hashCode());
+    int frequency = MAX_COUNT;
+    for (int row = 0; row < SEEDS.length; row++) {
+      final long word = table[indexOf(hash, row)];
+      frequency = Math.min(frequency, (int) ((word >>> offsetOf(hash, row)) & 0xfL));
+    }
+    return frequency;
+  }
+
+  void increment(final Object key) {
+    final int hash = spread(key.hashCode());
+    boolean incremented = false;
+    for (int row = 0; row < SEEDS.length; row++) {
+      final int index = indexOf(hash, row);
+      final int offset = offsetOf(hash, row);
+      if (((table[index] >>> offset) & 0xfL) < MAX_COUNT) {
+        table[index] += 1L << offset;
+        incremented = true;
+      }
+    }
+
+    if (incremented && ++size == sampleSize) {
+      reset();
+    }
+  }
+
+  private void reset() {
+    for (int i = 0; i < table.length; i++) {
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    size /= 2;
+  }
+
+  private int indexOf(final int hash, final int row) {
+    long h = (hash + SEEDS[row]) * SEEDS[row];
+    h += h >>> 32;
+    return (int) h & tableMask;
+  }
+
+  // each row uses its own quarter of the 16 counters of a word
+  private static int offsetOf(final int hash, final int row) {
+    final int counter = (row << 2) + ((hash >>> (row << 3)) & 3);
+    return counter << 2;
+  }
+
+  private static int spread(final int hashCode) {
+    final int h = hashCode * 0x9e3779b9;
+    return h ^ (h >>> 16);
+  }
+}
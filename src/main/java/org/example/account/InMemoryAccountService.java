@@ -0,0 +1,80 @@
+package org.example.account;
+
+import org.example.model.Account;
+import org.example.model.AccountServiceException;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An {@link AccountService} that keeps the accounts in memory, e.g. for tests and local runs.
+ *
+ * <p>The status of an account changes with a compare-and-set from {@link AccountStatus#PENDING},
+ * so only one of a concurrent activation and deletion of the same account succeeds.
+ */
+public class InMemoryAccountService implements AccountService {
+
+  private final ConcurrentHashMap<String, Entry> accounts = new ConcurrentHashMap<>();
+
+  @Override
+  public void create(final Account account) {
+    final Entry existing = accounts.putIfAbsent(account.id(), new Entry(account));
+    if (existing != null) {
+      throw new AccountServiceException(
+          "Expected to create account '%s' but it exists already".formatted(account.id()));
+    }
+  }
+
+  @Override
+  public Optional<Account> find(final String accountId) {
+    return Optional.ofNullable(accounts.get(accountId))
+        .filter(entry -> entry.status.get() != AccountStatus.DELETED)
+        .map(Entry::account);
+  }
+
+  @Override
+  public Optional<AccountStatus> status(final String accountId) {
+    return Optional.ofNullable(accounts.get(accountId)).map(entry -> entry.status.get());
+  }
+
+  @Override
+  public void activate(final String accountId) {
+    transition(accountId, AccountStatus.ACTIVE);
+  }
+
+  @Override
+  public void delete(final String accountId) {
+    transition(accountId, AccountStatus.DELETED);
+  }
+
+  /** Returns the number of accounts, including the deleted ones. */
+  public int size() {
+    return accounts.size();
+  }
+
+  private void transition(final String accountId, final AccountStatus target) {
+    final Entry entry = accounts.get(accountId);
+    if (entry == null) {
+      throw new AccountServiceException(
+          "Expected to %s account '%s' but it doesn't exist"
+              .formatted(verb(target), accountId));
+    }
+    if (!entry.status.compareAndSet(AccountStatus.PENDING, target)) {
+      throw new AccountServiceException(
+          "Expected to %s pending account '%s' but it is %s"
+              .formatted(verb(target), accountId, entry.status.get()));
+    }
+  }
+
+  private static String verb(final AccountStatus target) {
+    return target == AccountStatus.ACTIVE ? "activate" : "delete";
+  }
+
+  private record Entry(Account account, AtomicReference<AccountStatus> status) {
+
+    private Entry(final Account account) {
+      this(account, new AtomicReference<>(AccountStatus.PENDING));
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package org.example.account;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A size-bounded in-heap cache with W-TinyLFU eviction. It keeps entries that are accessed often,
+ * even if a burst of one-time accesses (e.g. many new sign-ups) passes through the cache.
+ *
+ * <ul>
+ *   <li><b>Window:</b> new entries are added to a small LRU window (1% of the capacity), so a new
+ *       entry gets a chance to be accessed again before it competes for the main space.
+ *   <li><b>Admission:</b> the entry that is evicted from the window replaces the next victim of the
+ *       main space only if the {@link FrequencySketch} estimates that it was accessed more often.
+ *   <li><b>Main space:</b> a segmented LRU. An entry is admitted to the probation segment and moves
+ *       to the protected segment (80% of the main space) when it is accessed again.
+ * </ul>
+ */
+public class TinyLfuCache<K, V> {
+
+  private final int windowCapacity;
+  private final int protectedCapacity;
+  private final int mainCapacity;
+
+  // each segment is in access order, so the eldest entry is the least recently used one
+  private final LinkedHashMap<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<K, V> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+  private final FrequencySketch sketch;
+
+  private long hits;
+  private long misses;
+
+  public TinyLfuCache(final int maximumSize) {
+    if (maximumSize < 2) {
+      throw new IllegalArgumentException(
+          "Expected maximum size to be at least 2 but was " + maximumSize);
+    }
+    windowCapacity = Math.max(1, maximumSize / 100);
+    mainCapacity = maximumSize - windowCapacity;
+    protectedCapacity = (int) (mainCapacity * 0.8);
+    sketch = new FrequencySketch(maximumSize);
+  }
+
+  /** Returns the cached value of the key, or {@code null} if it is not cached. */
+  public synchronized V get(final K key) {
+    sketch.increment(key);
+
+    V value = window.get(key);
+    if (value == null) {
+      value = protectedSegment.get(key);
+    }
+    if (value == null) {
+      value = probation.remove(key);
+      if (value != null) {
+        promote(key, value);
+      }
+    }
+
+    if (value == null) {
+      misses += 1;
+    } else {
+      hits += 1;
+    }
+    return value;
+  }
+
+  /**
+   * Adds the value to the cache, or replaces the cached value of the key. The entry might not be
+   * kept if other entries were accessed more often.
+   */
+  public synchronized void put(final K key, final V value) {
+    if (window.containsKey(key)) {
+      window.put(key, value);
+      return;
+    }
+    if (protectedSegment.containsKey(key)) {
+      protectedSegment.put(key, value);
+      return;
+    }
+    if (probation.containsKey(key)) {
+      probation.remove(key);
+      promote(key, value);
+      return;
+    }
+
+    window.put(key, value);
+    if (window.size() > windowCapacity) {
+      final Map.Entry<K, V> candidate = removeEldest(window);
+      admit(candidate.getKey(), candidate.getValue());
+    }
+  }
+
+  public synchronized void invalidate(final K key) {
+    if (window.remove(key) == null && probation.remove(key) == null) {
+      protectedSegment.remove(key);
+    }
+  }
+
+  public synchronized int size() {
+    return window.size() + probation.size() + protectedSegment.size();
+  }
+
+  /** Returns the number of lookups that found a cached value. */
+  public synchronized long hits() {
+    return hits;
+  }
+
+  /** Returns the number of lookups that didn't find a cached value. */
+  public synchronized long misses() {
+    return misses;
+  }
+
+  private void admit(final K candidate, final V value) {
+    if (probation.size() + protectedSegment.size() < mainCapacity) {
+      probation.put(candidate, value);
+      return;
+    }
+
+    final LinkedHashMap<K, V> victimSegment = probation.isEmpty() ? protectedSegment : probation;
+    final K victim = victimSegment.keySet().iterator().next();
+    if (sketch.frequency(candidate) > sketch.frequency(victim)) {
+      victimSegment.remove(victim);
+      probation.put(candidate, value);
+    }
+  }
+
+  private void promote(final K key, final V value) {
+    protectedSegment.put(key, value);
+    if (protectedSegment.size() > protectedCapacity) {
+      // demote the least recently used protected entry, it gets another chance in probation
+      final Map.Entry<K, V> demoted = removeEldest(protectedSegment);
+      probation.put(demoted.getKey(), demoted.getValue());
+    }
+  }
+
+  private static <K, V> Map.Entry<K, V> removeEldest(final LinkedHashMap<K, V> segment) {
+    final Iterator<Map.Entry<K, V>> iterator = segment.entrySet().iterator();
+    final Map.Entry<K, V> eldest = iterator.next();
+    iterator.remove();
+    return Map.entry(eldest.getKey(), eldest.getValue());
+  }
+}
@@ -0,0 +1,87 @@
+package org.example.analytics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The layout of the file that the {@link ProcessEventExporter} writes and the {@link
+ * ColumnarEventStore} reads. The file starts with a header, followed by row groups. Each row group
+ * holds one batch of events, column by column, so a query reads only the columns it needs:
+ *
+ * <pre>
+ * file header: int magic, int version
+ * row group:   int magic, int length in bytes (including this header), int row count,
+ *              int dictionary size, dictionary entries (int length, UTF-8 bytes),
+ *              long[] timestamps, long[] process instance keys,
+ *              int[] process ids, int[] element ids (codes of the dictionary),
+ *              byte[] event types (ordinals of {@link ProcessEvent.Type})
+ * </pre>
+ *
+ * <p>The process ids and element ids repeat a lot, so they are dictionary-encoded per row group.
+ */
+final class ColumnarEventFile {
+
+  static final int FILE_MAGIC = 0x50455643; // "PEVC"
+  static final int VERSION = 1;
+  static final int FILE_HEADER_LENGTH = 2 * Integer.BYTES;
+
+  static final int ROW_GROUP_MAGIC = 0x52475250; // "RGRP"
+  static final int ROW_GROUP_HEADER_LENGTH = 2 * Integer.BYTES;
+
+  static final int ROW_LENGTH = 2 * Long.BYTES + 2 * Integer.BYTES + Byte.BYTES;
+
+  private ColumnarEventFile() {}
+
+  static void writeHeader(final FileChannel channel) throws IOException {
+    final ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_LENGTH);
+    header.putInt(FILE_MAGIC).putInt(VERSION).flip();
+    channel.write(header, 0);
+  }
+
+  static void verifyHeader(final FileChannel channel) throws IOException {
+    final ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_LENGTH);
+    channel.read(header, 0);
+    header.flip();
+    if (header.remaining() < FILE_HEADER_LENGTH || header.getInt() != FILE_MAGIC) {
+      throw new IOException("Expected a file of process events but the file header doesn't match");
+    }
+    final int version = header.getInt();
+    if (version != VERSION) {
+      throw new IOException(
+          "Expected a file of process events with version %d but was %d".formatted(VERSION, version));
+    }
+  }
+
+  /**
+   * Returns the length of the row group at the given position, or {@code -1} if there is no
+   * completely written row group. The magic number of a row group is written last, so a row group
+   * with a valid magic number is complete.
+   */
+  static int rowGroupLength(final FileChannel channel, final long position) throws IOException {
+    if (position + ROW_GROUP_HEADER_LENGTH > channel.size()) {
+      return -1;
+    }
+    final ByteBuffer header = ByteBuffer.allocate(ROW_GROUP_HEADER_LENGTH);
+    channel.read(header, position);
+    header.flip();
+    final int magic = header.getInt();
+    final int length = header.getInt();
+    if (magic != ROW_GROUP_MAGIC
+        || length <= ROW_GROUP_HEADER_LENGTH
+        || position + length > channel.size()) {
+      return -1;
+    }
+    return length;
+  }
+
+  /** Returns the position after the last completely written row group. */
+  static long endOfRowGroups(final FileChannel channel) throws IOException {
+    long position = FILE_HEADER_LENGTH;
+    int length;
+    while ((length = rowGroupLength(channel, position)) > 0) {
+      position += length;
+    }
+    return position;
+  }
+}
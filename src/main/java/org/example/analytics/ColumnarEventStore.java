@@ -0,0 +1,213 @@
+package org.example.analytics;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Queries the process events that the {@link ProcessEventExporter} wrote. Each row group is mapped
+ * into memory and a query reads only the columns that it needs, without creating an object per
+ * event. The store sees the row groups that were written when it was opened.
+ */
+public class ColumnarEventStore implements AutoCloseable {
+
+  private static final ProcessEvent.Type[] TYPES = ProcessEvent.Type.values();
+
+  private final FileChannel channel;
+  private final List<RowGroup> rowGroups;
+
+  private ColumnarEventStore(final FileChannel channel, final List<RowGroup> rowGroups) {
+    this.channel = channel;
+    this.rowGroups = rowGroups;
+  }
+
+  public static ColumnarEventStore open(final Path file) throws IOException {
+    final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      ColumnarEventFile.verifyHeader(channel);
+      return new ColumnarEventStore(channel, readRowGroups(channel));
+    } catch (final IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  public long count() {
+    long count = 0;
+    for (final RowGroup rowGroup : rowGroups) {
+      count += rowGroup.rows;
+    }
+    return count;
+  }
+
+  public int rowGroups() {
+    return rowGroups.size();
+  }
+
+  /**
+   * Counts the process instances of the given process that completed the elements of the funnel
+   * steps. An instance counts for a step if it completed the element of this step and the elements of
+   * all previous steps. For example, the steps {@code new-sign-up}, {@code message-email-confirmed}
+   * and {@code activate-account} count the sign-ups that were confirmed and then activated.
+   */
+  public Funnel funnel(final String bpmnProcessId, final String... elementIds) {
+    if (elementIds.length == 0 || elementIds.length > Integer.SIZE - 1) {
+      throw new IllegalArgumentException(
+          "Expected between 1 and %d funnel steps but was %d"
+              .formatted(Integer.SIZE - 1, elementIds.length));
+    }
+
+    // a bit per step that the process instance completed
+    final Map<Long, Integer> completedSteps = new HashMap<>();
+    final int completed = ProcessEvent.Type.ELEMENT_COMPLETED.ordinal();
+
+    for (final RowGroup rowGroup : rowGroups) {
+      final int processCode = rowGroup.codeOf(bpmnProcessId);
+      if (processCode < 0) {
+        continue;
+      }
+      final int[] stepsByCode = new int[rowGroup.dictionary.length];
+      Arrays.fill(stepsByCode, -1);
+      for (int step = 0; step < elementIds.length; step++) {
+        final int code = rowGroup.codeOf(elementIds[step]);
+        if (code >= 0) {
+          stepsByCode[code] = step;
+        }
+      }
+
+      for (int row = 0; row < rowGroup.rows; row++) {
+        if (rowGroup.type(row) != completed || rowGroup.processId(row) != processCode) {
+          continue;
+        }
+        final int step = stepsByCode[rowGroup.elementId(row)];
+        if (step >= 0) {
+          completedSteps.merge(rowGroup.processInstanceKey(row), 1 << step, (a, b) -> a | b);
+        }
+      }
+    }
+
+    final long[] instances = new long[elementIds.length];
+    for (final int steps : completedSteps.values()) {
+      // the instance counts for all steps until the first one that it didn't complete
+      for (int step = 0; step < elementIds.length && (steps & (1 << step)) != 0; step++) {
+        instances[step] += 1;
+      }
+    }
+
+    final List<Funnel.Step> funnelSteps = new ArrayList<>(elementIds.length);
+    for (int step = 0; step < elementIds.length; step++) {
+      funnelSteps.add(new Funnel.Step(elementIds[step], instances[step]));
+    }
+    return new Funnel(bpmnProcessId, funnelSteps);
+  }
+
+  /**
+   * Returns the share of the instances that completed {@code startElementId} and then {@code
+   * elementId}, for example the rejection rate of the sign-ups.
+   */
+  public double rate(final String bpmnProcessId, final String startElementId, final String elementId) {
+    return funnel(bpmnProcessId, startElementId, elementId).conversion();
+  }
+
+  /** Reads all events, in the order they were exported. This creates an object per event. */
+  public void forEach(final Consumer<ProcessEvent> consumer) {
+    for (final RowGroup rowGroup : rowGroups) {
+      for (int row = 0; row < rowGroup.rows; row++) {
+        consumer.accept(
+            new ProcessEvent(
+                rowGroup.timestamp(row),
+                rowGroup.processInstanceKey(row),
+                rowGroup.dictionary[rowGroup.processId(row)],
+                rowGroup.dictionary[rowGroup.elementId(row)],
+                TYPES[rowGroup.type(row)]));
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private static List<RowGroup> readRowGroups(final FileChannel channel) throws IOException {
+    final List<RowGroup> rowGroups = new ArrayList<>();
+    long position = ColumnarEventFile.FILE_HEADER_LENGTH;
+    int length;
+    // stops at the end of the file or at a row group that was not completely written
+    while ((length = ColumnarEventFile.rowGroupLength(channel, position)) > 0) {
+      rowGroups.add(new RowGroup(channel.map(MapMode.READ_ONLY, position, length)));
+      position += length;
+    }
+    return rowGroups;
+  }
+
+  private static final class RowGroup {
+
+    private final MappedByteBuffer buffer;
+    private final int rows;
+    private final String[] dictionary;
+    private final int timestampsOffset;
+    private final int processInstanceKeysOffset;
+    private final int processIdsOffset;
+    private final int elementIdsOffset;
+    private final int typesOffset;
+
+    private RowGroup(final MappedByteBuffer buffer) {
+      this.buffer = buffer;
+      buffer.position(ColumnarEventFile.ROW_GROUP_HEADER_LENGTH);
+      rows = buffer.getInt();
+
+      dictionary = new String[buffer.getInt()];
+      for (int i = 0; i < dictionary.length; i++) {
+        final byte[] value = new byte[buffer.getInt()];
+        buffer.get(value);
+        dictionary[i] = new String(value, StandardCharsets.UTF_8);
+      }
+
+      timestampsOffset = buffer.position();
+      processInstanceKeysOffset = timestampsOffset + rows * Long.BYTES;
+      processIdsOffset = processInstanceKeysOffset + rows * Long.BYTES;
+      elementIdsOffset = processIdsOffset + rows * Integer.BYTES;
+      typesOffset = elementIdsOffset + rows * Integer.BYTES;
+    }
+
+    private int codeOf(final String value) {
+      for (int code = 0; code < dictionary.length; code++) {
+        if (dictionary[code].equals(value)) {
+          return code;
+        }
+      }
+      return -1;
+    }
+
+    private long timestamp(final int row) {
+      return buffer.getLong(timestampsOffset + row * Long.BYTES);
+    }
+
+    private long processInstanceKey(final int row) {
+      return buffer.getLong(processInstanceKeysOffset + row * Long.BYTES);
+    }
+
+    private int processId(final int row) {
+      return buffer.getInt(processIdsOffset + row * Integer.BYTES);
+    }
+
+    private int elementId(final int row) {
+      return buffer.getInt(elementIdsOffset + row * Integer.BYTES);
+    }
+
+    private int type(final int row) {
+      return buffer.get(typesOffset + row);
+    }
+  }
+}
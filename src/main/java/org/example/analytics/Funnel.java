@@ -0,0 +1,27 @@
+package org.example.analytics;
+
+import java.util.List;
+
+/**
+ * The result of a funnel query: for each step, the number of process instances that completed the
+ * element of the step and the elements of all previous steps.
+ */
+public record Funnel(String bpmnProcessId, List<Step> steps) {
+
+  public record Step(String elementId, long instances) {}
+
+  public long instances(final int step) {
+    return steps.get(step).instances();
+  }
+
+  /** Returns the share of the instances of the first step that reached the last step. */
+  public double conversion() {
+    return conversion(0, steps.size() - 1);
+  }
+
+  /** Returns the share of the instances of the step {@code from} that reached the step {@code to}. */
+  public double conversion(final int from, final int to) {
+    final long base = instances(from);
+    return base == 0 ? 0.0 : (double) instances(to) / base;
+  }
+}
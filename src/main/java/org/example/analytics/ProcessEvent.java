@@ -0,0 +1,19 @@
+package org.example.analytics;
+
+/**
+ * A process or job event of a process instance, reduced to the columns that the analytics queries
+ * need. For a job event, the element id is the id of the element that created the job.
+ */
+public record ProcessEvent(
+    long timestamp, long processInstanceKey, String bpmnProcessId, String elementId, Type type) {
+
+  public enum Type {
+    ELEMENT_ACTIVATED,
+    ELEMENT_COMPLETED,
+    ELEMENT_TERMINATED,
+    JOB_CREATED,
+    JOB_COMPLETED,
+    JOB_FAILED,
+    JOB_ERROR_THROWN
+  }
+}
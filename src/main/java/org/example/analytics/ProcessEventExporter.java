@@ -0,0 +1,216 @@
+package org.example.analytics;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams the events of the given processes into a local columnar file (see {@link
+ * ColumnarEventFile}) that the {@link ColumnarEventStore} queries. The events are buffered in
+ * columns and written as one row group per batch into a memory-mapped region at the end of the
+ * file, so an exported event costs a few array writes instead of a write per event. The region is
+ * mapped ahead of the written row groups and remapped with twice the size when it is full, so a
+ * long-running exporter creates only a few mappings.
+ *
+ * <p>The exporter appends to an existing file. A flush forces the row group to the disk before it
+ * writes the magic number of the row group, and forces the magic number afterward. So even after a
+ * crash of the operating system, a row group with a magic number is complete. A row group that is
+ * only partially written is ignored when the file is read and dropped when the file is opened again.
+ * The exporter is not thread-safe, like the exporters of the engine that are called by a single
+ * thread.
+ */
+public class ProcessEventExporter implements AutoCloseable {
+
+  /** The processes whose events are exported by default: the sign-up and the pull request process. */
+  public static final Set<String> DEFAULT_PROCESSES = Set.of("sign-up", "prCreatedProcess");
+
+  private static final int INITIAL_REGION_SIZE = 1 << 20;
+
+  private final FileChannel channel;
+  private final Set<String> bpmnProcessIds;
+  private final int batchSize;
+
+  // the columns of the current batch
+  private final long[] timestamps;
+  private final long[] processInstanceKeys;
+  private final int[] processIds;
+  private final int[] elementIds;
+  private final byte[] types;
+  private final Map<String, Integer> dictionary = new HashMap<>();
+  private final List<byte[]> dictionaryValues = new ArrayList<>();
+  private int rows;
+
+  // the mapped region starts at or before the end of the written row groups
+  private MappedByteBuffer region;
+  private long regionStart;
+  private long position;
+  private long exportedEvents;
+  private int rowGroups;
+
+  public ProcessEventExporter(final Path file, final int batchSize) throws IOException {
+    this(file, batchSize, DEFAULT_PROCESSES);
+  }
+
+  public ProcessEventExporter(final Path file, final int batchSize, final Set<String> bpmnProcessIds)
+      throws IOException {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Expected batch size to be positive but was " + batchSize);
+    }
+    this.bpmnProcessIds = Set.copyOf(bpmnProcessIds);
+    this.batchSize = batchSize;
+
+    timestamps = new long[batchSize];
+    processInstanceKeys = new long[batchSize];
+    processIds = new int[batchSize];
+    elementIds = new int[batchSize];
+    types = new byte[batchSize];
+
+    channel =
+        FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    if (channel.size() == 0) {
+      ColumnarEventFile.writeHeader(channel);
+    } else {
+      ColumnarEventFile.verifyHeader(channel);
+    }
+    // a row group that was not completely written is dropped
+    position = ColumnarEventFile.endOfRowGroups(channel);
+    channel.truncate(position);
+  }
+
+  /**
+   * Adds the event to the current batch and writes the batch if it is full. Returns {@code false}
+   * if the event is not exported because it belongs to another process.
+   */
+  public boolean export(final ProcessEvent event) throws IOException {
+    if (!bpmnProcessIds.contains(event.bpmnProcessId())) {
+      return false;
+    }
+
+    timestamps[rows] = event.timestamp();
+    processInstanceKeys[rows] = event.processInstanceKey();
+    processIds[rows] = encode(event.bpmnProcessId());
+    elementIds[rows] = encode(event.elementId());
+    types[rows] = (byte) event.type().ordinal();
+    rows += 1;
+    exportedEvents += 1;
+
+    if (rows == batchSize) {
+      flush();
+    }
+    return true;
+  }
+
+  /** Writes the buffered events as a row group, even if the batch is not full. */
+  public void flush() throws IOException {
+    if (rows == 0) {
+      return;
+    }
+
+    int dictionaryLength = 0;
+    for (final byte[] value : dictionaryValues) {
+      dictionaryLength += Integer.BYTES + value.length;
+    }
+    final int length =
+        ColumnarEventFile.ROW_GROUP_HEADER_LENGTH
+            + 2 * Integer.BYTES
+            + dictionaryLength
+            + rows * ColumnarEventFile.ROW_LENGTH;
+
+    final MappedByteBuffer buffer = mapRegion(length);
+    final int offset = (int) (position - regionStart);
+    buffer.position(offset);
+    buffer.putInt(0).putInt(length).putInt(rows);
+
+    buffer.putInt(dictionaryValues.size());
+    for (final byte[] value : dictionaryValues) {
+      buffer.putInt(value.length).put(value);
+    }
+
+    for (int i = 0; i < rows; i++) {
+      buffer.putLong(timestamps[i]);
+    }
+    for (int i = 0; i < rows; i++) {
+      buffer.putLong(processInstanceKeys[i]);
+    }
+    for (int i = 0; i < rows; i++) {
+      buffer.putInt(processIds[i]);
+    }
+    for (int i = 0; i < rows; i++) {
+      buffer.putInt(elementIds[i]);
+    }
+    buffer.put(types, 0, rows);
+
+    // the row group must be on the disk before the magic number marks it as complete, otherwise
+    // the operating system may write the page with the magic number first
+    buffer.force(offset, length);
+    buffer.putInt(offset, ColumnarEventFile.ROW_GROUP_MAGIC);
+    buffer.force(offset, Integer.BYTES);
+
+    position += length;
+    rowGroups += 1;
+    rows = 0;
+    dictionary.clear();
+    dictionaryValues.clear();
+  }
+
+  public long exportedEvents() {
+    return exportedEvents;
+  }
+
+  public int writtenRowGroups() {
+    return rowGroups;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+      // drop the mapped space after the last row group
+      region = null;
+      channel.truncate(position);
+      channel.force(true);
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Returns the mapped region that has space for a row group of the given length at the current
+   * position. Mapping a region beyond the end of the file grows the file.
+   */
+  private MappedByteBuffer mapRegion(final int length) throws IOException {
+    if (region != null && position + length <= regionStart + region.capacity()) {
+      return region;
+    }
+
+    final long size =
+        Math.min(
+            Integer.MAX_VALUE,
+            Math.max(
+                Math.max(INITIAL_REGION_SIZE, length),
+                region == null ? 0 : 2L * region.capacity()));
+    // the previous mapping is released by the garbage collector, the doubling keeps it rare
+    region = channel.map(MapMode.READ_WRITE, position, size);
+    regionStart = position;
+    return region;
+  }
+
+  private int encode(final String value) {
+    return dictionary.computeIfAbsent(
+        value,
+        key -> {
+          dictionaryValues.add(key.getBytes(StandardCharsets.UTF_8));
+          return dictionaryValues.size() - 1;
+        });
+  }
+}
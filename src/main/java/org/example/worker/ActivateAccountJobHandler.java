@@ -0,0 +1,29 @@
+package org.example.worker;
+
+import org.example.account.AccountService;
+
+/**
+ * Handles the jobs of {@code accounts:activate}: activates the account with the {@code account.id}
+ * after the email address was confirmed. The job fails if the account is not pending anymore, e.g.
+ * because it was deleted.
+ */
+public class ActivateAccountJobHandler implements PooledJobHandler {
+
+  public static final String JOB_TYPE = "accounts:activate";
+
+  private final AccountService accounts;
+
+  public ActivateAccountJobHandler(final AccountService accounts) {
+    this.accounts = accounts;
+  }
+
+  @Override
+  public void handle(final JobView job, final CompletionBuilder completion) {
+    final VariableView accountId = job.variable("account.id");
+    if (!accountId.isString()) {
+      throw new IllegalStateException("Expected the job to have an account with id");
+    }
+
+    accounts.activate(accountId.toString());
+  }
+}
@@ -0,0 +1,151 @@
+package org.example.worker;
+
+import io.camunda.client.CamundaClient;
+import io.camunda.client.api.response.ActivatedJob;
+import io.camunda.client.api.worker.JobClient;
+import io.camunda.client.api.worker.JobHandler;
+import io.camunda.client.api.worker.JobWorker;
+import io.camunda.client.api.worker.JobWorkerMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A job worker whose settings are tuned by a {@link WorkerTuner} while it runs. The settings of a
+ * worker can't be changed after it is opened, so the worker is reopened when the tuner derives
+ * settings that differ significantly from the current ones. The new worker is opened before the old
+ * one is closed. The jobs that the old worker already activated are still handled, because the
+ * handler threads belong to the client.
+ *
+ * <pre>{@code
+ * final var worker =
+ *     AdaptiveJobWorker.open(client, "backend:confirm-account", handler, new WorkerTuner(1, 256, Duration.ofMillis(20)));
+ * worker.scheduleTuning(scheduler, Duration.ofSeconds(30));
+ * }</pre>
+ */
+public class AdaptiveJobWorker implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AdaptiveJobWorker.class);
+
+  private final String jobType;
+  private final WorkerTuner tuner;
+  private final WorkerOpener opener;
+  private final JobHandler handler;
+  private final JobWorkerMetrics metrics;
+
+  private JobWorker worker;
+  private WorkerTuning tuning;
+  private ScheduledFuture<?> scheduledTuning;
+  private boolean closed;
+
+  AdaptiveJobWorker(
+      final String jobType,
+      final JobHandler handler,
+      final WorkerTuner tuner,
+      final WorkerOpener opener) {
+    this.jobType = jobType;
+    this.tuner = tuner;
+    this.opener = opener;
+    this.handler = measuring(handler, tuner);
+    metrics =
+        new JobWorkerMetrics() {
+          @Override
+          public void jobActivated(final int count) {
+            tuner.jobsActivated(count);
+          }
+        };
+
+    tuning = tuner.current();
+    worker = opener.open(tuning, this.handler, metrics);
+  }
+
+  public static AdaptiveJobWorker open(
+      final CamundaClient client,
+      final String jobType,
+      final JobHandler handler,
+      final WorkerTuner tuner) {
+    return new AdaptiveJobWorker(
+        jobType,
+        handler,
+        tuner,
+        (tuning, measuredHandler, metrics) ->
+            client
+                .newWorker()
+                .jobType(jobType)
+                .handler(measuredHandler)
+                .maxJobsActive(tuning.maxJobsActive())
+                .pollInterval(tuning.pollInterval())
+                .requestTimeout(tuning.requestTimeout())
+                .timeout(tuning.jobTimeout())
+                .metrics(metrics)
+                .open());
+  }
+
+  /** Tunes the worker periodically until it is closed. */
+  public synchronized void scheduleTuning(
+      final ScheduledExecutorService scheduler, final Duration interval) {
+    scheduledTuning =
+        scheduler.scheduleAtFixedRate(
+            this::tune, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /** Derives new settings and reopens the worker if they differ significantly. */
+  public synchronized boolean tune() {
+    if (closed) {
+      return false;
+    }
+
+    final WorkerTuning newTuning = tuner.tune();
+    if (!newTuning.differsSignificantlyFrom(tuning)) {
+      return false;
+    }
+
+    LOG.info(
+        "Reopen worker of '{}' with {} (average handler latency {}, queue depth {})",
+        jobType,
+        newTuning,
+        tuner.averageLatency(),
+        tuner.queueDepth());
+    final JobWorker previousWorker = worker;
+    worker = opener.open(newTuning, handler, metrics);
+    tuning = newTuning;
+    previousWorker.close();
+    return true;
+  }
+
+  public synchronized WorkerTuning tuning() {
+    return tuning;
+  }
+
+  @Override
+  public synchronized void close() {
+    closed = true;
+    if (scheduledTuning != null) {
+      scheduledTuning.cancel(false);
+    }
+    worker.close();
+  }
+
+  private static JobHandler measuring(final JobHandler handler, final WorkerTuner tuner) {
+    return (final JobClient client, final ActivatedJob job) -> {
+      tuner.jobStarted();
+      final long start = System.nanoTime();
+      try {
+        handler.handle(client, job);
+      } finally {
+        tuner.jobHandled(System.nanoTime() - start);
+      }
+    };
+  }
+
+  /** Opens a job worker with the given settings. */
+  @FunctionalInterface
+  interface WorkerOpener {
+
+    JobWorker open(WorkerTuning tuning, JobHandler handler, JobWorkerMetrics metrics);
+  }
+}
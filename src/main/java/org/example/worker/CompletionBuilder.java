@@ -0,0 +1,224 @@
+package org.example.worker;
+
+/**
+ * A reusable builder for the result of a {@link PooledJobHandler}: the variables to complete the
+ * job with, written directly as JSON into a buffer that is reused for the next job, or a BPMN error
+ * to throw instead.
+ *
+ * <pre>{@code
+ * completion
+ *     .beginObject("account")
+ *     .put("id", accountId)
+ *     .put("email", job.variable("signUpForm.email"))
+ *     .endObject();
+ * }</pre>
+ */
+public final class CompletionBuilder {
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  private static final int MAX_DEPTH = 8;
+
+  private final StringBuilder json = new StringBuilder(256);
+  private final boolean[] emptyObjects = new boolean[MAX_DEPTH];
+  private int depth;
+  private boolean inString;
+  private boolean finished;
+
+  private String errorCode;
+  private final StringBuilder errorMessage = new StringBuilder();
+
+  public CompletionBuilder() {
+    reset();
+  }
+
+  public CompletionBuilder reset() {
+    json.setLength(0);
+    json.append('{');
+    depth = 0;
+    emptyObjects[0] = true;
+    inString = false;
+    finished = false;
+    errorCode = null;
+    errorMessage.setLength(0);
+    return this;
+  }
+
+  public CompletionBuilder put(final String name, final CharSequence value) {
+    name(name);
+    if (value == null) {
+      json.append("null");
+    } else {
+      json.append('"');
+      appendEscaped(value);
+      json.append('"');
+    }
+    return this;
+  }
+
+  /** Copies the variable unchanged, e.g. a nested object that the next task needs as well. */
+  public CompletionBuilder put(final String name, final VariableView value) {
+    name(name);
+    if (value.isPresent()) {
+      value.appendJsonTo(json);
+    } else {
+      json.append("null");
+    }
+    return this;
+  }
+
+  public CompletionBuilder put(final String name, final long value) {
+    name(name);
+    json.append(value);
+    return this;
+  }
+
+  public CompletionBuilder put(final String name, final boolean value) {
+    name(name);
+    json.append(value);
+    return this;
+  }
+
+  public CompletionBuilder beginObject(final String name) {
+    name(name);
+    if (depth + 1 == MAX_DEPTH) {
+      throw new IllegalStateException(
+          "Expected objects to be nested at most %d levels deep".formatted(MAX_DEPTH));
+    }
+    json.append('{');
+    depth += 1;
+    emptyObjects[depth] = true;
+    return this;
+  }
+
+  public CompletionBuilder endObject() {
+    requireNoString();
+    if (depth == 0) {
+      throw new IllegalStateException("Expected an object to end but none was begun");
+    }
+    json.append('}');
+    depth -= 1;
+    return this;
+  }
+
+  /** Begins a string value that is assembled from several parts, e.g. a prefix and a number. */
+  public CompletionBuilder beginString(final String name) {
+    name(name);
+    json.append('"');
+    inString = true;
+    return this;
+  }
+
+  public CompletionBuilder append(final CharSequence value) {
+    requireString();
+    appendEscaped(value);
+    return this;
+  }
+
+  public CompletionBuilder append(final long value) {
+    requireString();
+    json.append(value);
+    return this;
+  }
+
+  /** Appends the value as 16 hexadecimal digits, e.g. for a random code. */
+  public CompletionBuilder appendHex(final long value) {
+    requireString();
+    for (int shift = 60; shift >= 0; shift -= 4) {
+      json.append(HEX_DIGITS[(int) (value >>> shift) & 0xf]);
+    }
+    return this;
+  }
+
+  public CompletionBuilder endString() {
+    requireString();
+    json.append('"');
+    inString = false;
+    return this;
+  }
+
+  /**
+   * Throws a BPMN error with the given code instead of completing the job. The variables that were
+   * put are passed with the error.
+   */
+  public CompletionBuilder throwError(final String errorCode, final CharSequence errorMessage) {
+    this.errorCode = errorCode;
+    this.errorMessage.setLength(0);
+    this.errorMessage.append(errorMessage);
+    return this;
+  }
+
+  public boolean isError() {
+    return errorCode != null;
+  }
+
+  public String errorCode() {
+    return errorCode;
+  }
+
+  public CharSequence errorMessage() {
+    return errorMessage;
+  }
+
+  /**
+   * Returns the variables as JSON. No more variables can be put afterwards. The returned characters
+   * are only valid until the next reset.
+   */
+  public CharSequence variables() {
+    if (!finished) {
+      requireNoString();
+      if (depth != 0) {
+        throw new IllegalStateException(
+            "Expected all objects to end but %d are still open".formatted(depth));
+      }
+      json.append('}');
+      finished = true;
+    }
+    return json;
+  }
+
+  private void name(final String name) {
+    requireNoString();
+    if (finished) {
+      throw new IllegalStateException("Expected no more variables after the variables were read");
+    }
+    if (!emptyObjects[depth]) {
+      json.append(',');
+    }
+    emptyObjects[depth] = false;
+    json.append('"');
+    appendEscaped(name);
+    json.append("\":");
+  }
+
+  private void appendEscaped(final CharSequence value) {
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      switch (c) {
+        case '"' -> json.append("\\\"");
+        case '\\' -> json.append("\\\\");
+        case '\n' -> json.append("\\n");
+        case '\r' -> json.append("\\r");
+        case '\t' -> json.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            json.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xf]);
+          } else {
+            json.append(c);
+          }
+        }
+      }
+    }
+  }
+
+  private void requireString() {
+    if (!inString) {
+      throw new IllegalStateException("Expected a string to be begun");
+    }
+  }
+
+  private void requireNoString() {
+    if (inString) {
+      throw new IllegalStateException("Expected the string to end first");
+    }
+  }
+}
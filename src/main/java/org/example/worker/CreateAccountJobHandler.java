@@ -0,0 +1,85 @@
+package org.example.worker;
+
+import org.example.account.AccountService;
+import org.example.model.Account;
+import org.example.model.AccountServiceException;
+
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Handles the jobs of {@code accounts:create}: creates the {@code account} from the {@code
+ * signUpForm} in the {@link AccountService}, or throws the BPMN error {@code invalid-account} if the
+ * email address is not valid.
+ *
+ * <p>The job is completed with the whole account, because the activation email reads the user name
+ * and the email address from the process variables. The other workers of the process only need the
+ * {@code account.id} and look up the account in the store. Storing the account creates its strings,
+ * so unlike the other pooled handlers, this handler allocates per job.
+ *
+ * <p>The id of the account is derived from the element instance key of the job. If the job is
+ * delivered again (e.g. after the job timed out or the completion was lost), the account exists
+ * already, and the job is completed with the existing account instead of creating a second one.
+ */
+public class CreateAccountJobHandler implements PooledJobHandler {
+
+  public static final String JOB_TYPE = "accounts:create";
+  public static final String INVALID_ACCOUNT_ERROR = "invalid-account";
+
+  private static final String ACCOUNT_ID_PREFIX = "account-id-";
+  private static final HexFormat HEX_FORMAT = HexFormat.of();
+
+  private final AccountService accounts;
+
+  public CreateAccountJobHandler(final AccountService accounts) {
+    this.accounts = accounts;
+  }
+
+  @Override
+  public void handle(final JobView job, final CompletionBuilder completion) {
+    final VariableView userName = job.variable("signUpForm.userName");
+    final VariableView email = job.variable("signUpForm.email");
+    final VariableView subscribeToNewsletter = job.variable("signUpForm.subscribeToNewsletter");
+
+    if (!email.isString() || email.indexOf('@') <= 0) {
+      completion
+          .put("rejectionReason", "invalid email")
+          .throwError(INVALID_ACCOUNT_ERROR, "invalid email");
+      return;
+    }
+
+    final String accountId = ACCOUNT_ID_PREFIX + job.getElementInstanceKey();
+    final Account account =
+        new Account(
+            accountId,
+            userName.toString(),
+            email.toString(),
+            !subscribeToNewsletter.isNull() && subscribeToNewsletter.asBoolean(),
+            HEX_FORMAT.toHexDigits(ThreadLocalRandom.current().nextLong()));
+    final Account createdAccount = create(account);
+
+    completion
+        .beginObject("account")
+        .put("id", createdAccount.id())
+        .put("userName", createdAccount.userName())
+        .put("email", createdAccount.email())
+        .put("subscribeToNewsletter", createdAccount.subscribeToNewsletter())
+        .put("activationCode", createdAccount.activationCode())
+        .endObject();
+  }
+
+  private Account create(final Account account) {
+    try {
+      accounts.create(account);
+      return account;
+    } catch (final AccountServiceException e) {
+      // the job was delivered again, complete it with the account of the previous delivery
+      final Optional<Account> existingAccount = accounts.find(account.id());
+      if (existingAccount.isEmpty()) {
+        throw e;
+      }
+      return existingAccount.get();
+    }
+  }
+}
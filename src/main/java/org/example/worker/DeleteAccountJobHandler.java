@@ -0,0 +1,29 @@
+package org.example.worker;
+
+import org.example.account.AccountService;
+
+/**
+ * Handles the jobs of {@code accounts:delete}: deletes the account with the {@code account.id} if
+ * the email address was not confirmed in time. The job fails if the account is not pending anymore,
+ * e.g. because it was activated.
+ */
+public class DeleteAccountJobHandler implements PooledJobHandler {
+
+  public static final String JOB_TYPE = "accounts:delete";
+
+  private final AccountService accounts;
+
+  public DeleteAccountJobHandler(final AccountService accounts) {
+    this.accounts = accounts;
+  }
+
+  @Override
+  public void handle(final JobView job, final CompletionBuilder completion) {
+    final VariableView accountId = job.variable("account.id");
+    if (!accountId.isString()) {
+      throw new IllegalStateException("Expected the job to have an account with id");
+    }
+
+    accounts.delete(accountId.toString());
+  }
+}
@@ -0,0 +1,174 @@
+package org.example.worker;
+
+import io.camunda.client.api.response.ActivatedJob;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Remembers the results of handled jobs, so that a job that is delivered again (e.g. after the job
+ * timed out or the complete command got lost during a broker failover) is not handled twice.
+ *
+ * <p>The cache is keyed by the job key and the element instance key. It holds at most {@code
+ * maxEntries} results and evicts each result {@code timeToLive} after its handler completed. A job
+ * that is delivered again while it is still handled waits for the running handler instead of
+ * starting it again, but not beyond the deadline of the redelivered job. A running handler is never
+ * evicted, so the cache may exceed {@code maxEntries} while more handlers are running. A failed
+ * handler is not cached, so a retry of the job runs the handler again.
+ *
+ * <p>The results are only held in the memory of this node. A job that is redelivered to a worker on
+ * another node runs the handler again, so the handler must still tolerate duplicates, e.g. with a
+ * unique constraint in the store.
+ */
+public class IdempotencyCache {
+
+  // the expiration of an entry whose handler is still running
+  private static final long RUNNING = Long.MAX_VALUE;
+
+  private final int maxEntries;
+  private final long timeToLiveMillis;
+  private final Clock clock;
+
+  // an entry is inserted again when its handler completes, so the insertion order of the completed
+  // entries is their expiration order
+  private final LinkedHashMap<JobIdentity, Entry> entries = new LinkedHashMap<>();
+
+  private long hits;
+  private long misses;
+
+  public IdempotencyCache(final int maxEntries, final Duration timeToLive) {
+    this(maxEntries, timeToLive, Clock.systemUTC());
+  }
+
+  public IdempotencyCache(final int maxEntries, final Duration timeToLive, final Clock clock) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("Expected max entries to be positive but was " + maxEntries);
+    }
+    this.maxEntries = maxEntries;
+    this.timeToLiveMillis = timeToLive.toMillis();
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the cached result of the job, or handles the job with the given handler and caches its
+   * result.
+   *
+   * @throws TimeoutException if the job is a duplicate delivery and the first delivery didn't finish
+   *     before the deadline of the job, the job is failed and can be retried later
+   */
+  public Map<String, Object> computeIfAbsent(final ActivatedJob job, final JobResultHandler handler)
+      throws Exception {
+    final JobIdentity identity = JobIdentity.of(job);
+    final CompletableFuture<Map<String, Object>> result;
+    final boolean isFirstDelivery;
+
+    synchronized (this) {
+      evictEntries(clock.millis());
+
+      final Entry entry = entries.get(identity);
+      if (entry != null) {
+        result = entry.result();
+        isFirstDelivery = false;
+        hits += 1;
+      } else {
+        result = new CompletableFuture<>();
+        entries.put(identity, new Entry(result, RUNNING));
+        isFirstDelivery = true;
+        misses += 1;
+      }
+    }
+
+    if (isFirstDelivery) {
+      try {
+        result.complete(handler.handle(job));
+        startTimeToLive(identity, result);
+      } catch (final Exception e) {
+        invalidate(identity);
+        result.completeExceptionally(e);
+        throw e;
+      }
+    }
+
+    return await(result, job.getDeadline() - clock.millis());
+  }
+
+  public synchronized void invalidate(final JobIdentity identity) {
+    entries.remove(identity);
+  }
+
+  public synchronized int size() {
+    evictEntries(clock.millis());
+    return entries.size();
+  }
+
+  /** Returns the number of deliveries that were answered from the cache. */
+  public synchronized long hits() {
+    return hits;
+  }
+
+  /** Returns the number of deliveries that invoked the handler. */
+  public synchronized long misses() {
+    return misses;
+  }
+
+  private synchronized void startTimeToLive(
+      final JobIdentity identity, final CompletableFuture<Map<String, Object>> result) {
+    final Entry entry = entries.get(identity);
+    if (entry == null || entry.result() != result) {
+      // invalidated while the handler was running
+      return;
+    }
+    final long now = clock.millis();
+    entries.remove(identity);
+    entries.put(identity, new Entry(result, now + timeToLiveMillis));
+    evictEntries(now);
+  }
+
+  /** Evicts the expired entries and the oldest entries above the maximum, but no running handler. */
+  private void evictEntries(final long now) {
+    int excessEntries = entries.size() - maxEntries;
+    final Iterator<Entry> iterator = entries.values().iterator();
+    while (iterator.hasNext()) {
+      final Entry entry = iterator.next();
+      if (entry.expiresAt() == RUNNING) {
+        continue;
+      }
+      if (entry.expiresAt() > now && excessEntries <= 0) {
+        return;
+      }
+      iterator.remove();
+      excessEntries -= 1;
+    }
+  }
+
+  private static Map<String, Object> await(
+      final CompletableFuture<Map<String, Object>> result, final long remainingMillis)
+      throws Exception {
+    try {
+      // a hanging first delivery must not block the worker threads of all redeliveries
+      return result.get(Math.max(remainingMillis, 0), TimeUnit.MILLISECONDS);
+    } catch (final ExecutionException | CompletionException e) {
+      if (e.getCause() instanceof final Exception cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  public record JobIdentity(long jobKey, long elementInstanceKey) {
+
+    public static JobIdentity of(final ActivatedJob job) {
+      return new JobIdentity(job.getKey(), job.getElementInstanceKey());
+    }
+  }
+
+  private record Entry(CompletableFuture<Map<String, Object>> result, long expiresAt) {}
+}
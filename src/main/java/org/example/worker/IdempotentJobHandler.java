@@ -0,0 +1,37 @@
+package org.example.worker;
+
+import io.camunda.client.api.response.ActivatedJob;
+import io.camunda.client.api.worker.JobClient;
+import io.camunda.client.api.worker.JobHandler;
+
+import java.util.Map;
+
+/**
+ * A job handler that completes a job that is delivered more than once with the result of the first
+ * delivery, instead of running the handler again. For example, if {@code accounts:create} timed out
+ * after the account was stored, the redelivered job completes with the already created account.
+ *
+ * <pre>{@code
+ * client.newWorker()
+ *     .jobType("accounts:create")
+ *     .handler(new IdempotentJobHandler(createAccountHandler, cache))
+ *     .open();
+ * }</pre>
+ */
+public class IdempotentJobHandler implements JobHandler {
+
+  private final JobResultHandler handler;
+  private final IdempotencyCache cache;
+
+  public IdempotentJobHandler(final JobResultHandler handler, final IdempotencyCache cache) {
+    this.handler = handler;
+    this.cache = cache;
+  }
+
+  @Override
+  public void handle(final JobClient client, final ActivatedJob job) throws Exception {
+    final Map<String, Object> variables = cache.computeIfAbsent(job, handler);
+
+    client.newCompleteCommand(job).variables(variables).send().join();
+  }
+}
@@ -0,0 +1,16 @@
+package org.example.worker;
+
+import io.camunda.client.api.response.ActivatedJob;
+
+import java.util.Map;
+
+/**
+ * Handles a job and returns the variables to complete it with. Unlike a plain {@code JobHandler},
+ * it doesn't send the complete command itself, so the result can be reused for a duplicate
+ * delivery of the same job.
+ */
+@FunctionalInterface
+public interface JobResultHandler {
+
+  Map<String, Object> handle(ActivatedJob job) throws Exception;
+}
@@ -0,0 +1,101 @@
+package org.example.worker;
+
+import io.camunda.client.api.response.ActivatedJob;
+
+/**
+ * A reusable view of an activated job for a {@link PooledJobHandler}. Instead of creating a map or
+ * an object from the variables of each job, the handler reads single variables through {@link
+ * VariableView flyweights} over the raw JSON. The view and its variable views belong to the handler
+ * thread and are reused for the next job.
+ */
+public final class JobView {
+
+  private static final int MAX_VARIABLES = 16;
+
+  private final VariableView[] variables = new VariableView[MAX_VARIABLES];
+  private int usedVariables;
+
+  private long key;
+  private long elementInstanceKey;
+  private String type;
+  private int retries;
+  private String variablesJson;
+
+  public JobView() {
+    for (int i = 0; i < MAX_VARIABLES; i++) {
+      variables[i] = new VariableView();
+    }
+  }
+
+  public JobView wrap(final ActivatedJob job) {
+    return wrap(
+        job.getKey(),
+        job.getElementInstanceKey(),
+        job.getType(),
+        job.getRetries(),
+        job.getVariables());
+  }
+
+  public JobView wrap(
+      final long key,
+      final long elementInstanceKey,
+      final String type,
+      final int retries,
+      final String variablesJson) {
+    clear();
+    this.key = key;
+    this.elementInstanceKey = elementInstanceKey;
+    this.type = type;
+    this.retries = retries;
+    this.variablesJson = variablesJson;
+    return this;
+  }
+
+  /** Releases the references to the job, so that the job can be garbage-collected. */
+  public void clear() {
+    for (int i = 0; i < usedVariables; i++) {
+      variables[i].clear();
+    }
+    usedVariables = 0;
+    type = null;
+    variablesJson = null;
+  }
+
+  public long getKey() {
+    return key;
+  }
+
+  /** Returns the key of the task, which stays the same if the job is delivered again. */
+  public long getElementInstanceKey() {
+    return elementInstanceKey;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public int getRetries() {
+    return retries;
+  }
+
+  /**
+   * Returns a view of the variable at the given path, e.g. {@code signUpForm.email}. The view is not
+   * {@link VariableView#isPresent() present} if the job has no such variable. A handler can read up
+   * to 16 variables per job.
+   */
+  public VariableView variable(final String path) {
+    if (usedVariables == MAX_VARIABLES) {
+      throw new IllegalStateException(
+          "Expected to read at most %d variables per job but job %d read more"
+              .formatted(MAX_VARIABLES, key));
+    }
+    final VariableView view = variables[usedVariables];
+    usedVariables += 1;
+
+    final int index = variablesJson == null ? -1 : JsonScanner.find(variablesJson, path);
+    if (index >= 0) {
+      view.bind(variablesJson, index);
+    }
+    return view;
+  }
+}
@@ -0,0 +1,164 @@
+package org.example.worker;
+
+/**
+ * Finds values in a JSON document by scanning its characters, without building a tree or any other
+ * objects. It expects a valid document, like the variables of a job that the engine produced.
+ */
+final class JsonScanner {
+
+  private JsonScanner() {}
+
+  /**
+   * Returns the index of the value at the given path of object members (e.g. {@code
+   * signUpForm.email}), or {@code -1} if there is no such value.
+   */
+  static int find(final String json, final String path) {
+    int index = skipWhitespace(json, 0);
+    int segmentStart = 0;
+    while (true) {
+      final int dot = path.indexOf('.', segmentStart);
+      final int segmentEnd = dot < 0 ? path.length() : dot;
+
+      if (index >= json.length() || json.charAt(index) != '{') {
+        return -1;
+      }
+      index = findMember(json, index, path, segmentStart, segmentEnd);
+      if (index < 0 || dot < 0) {
+        return index;
+      }
+      segmentStart = segmentEnd + 1;
+    }
+  }
+
+  /** Returns the index after the value that starts at the given index. */
+  static int skipValue(final String json, final int index) {
+    final char c = json.charAt(index);
+    if (c == '"') {
+      return skipString(json, index);
+    }
+    if (c == '{' || c == '[') {
+      int depth = 0;
+      int i = index;
+      while (i < json.length()) {
+        final char current = json.charAt(i);
+        if (current == '"') {
+          i = skipString(json, i);
+          continue;
+        }
+        if (current == '{' || current == '[') {
+          depth += 1;
+        } else if (current == '}' || current == ']') {
+          depth -= 1;
+          if (depth == 0) {
+            return i + 1;
+          }
+        }
+        i += 1;
+      }
+      return i;
+    }
+
+    // a number, true, false or null
+    int i = index;
+    while (i < json.length()) {
+      final char current = json.charAt(i);
+      if (current == ',' || current == '}' || current == ']' || Character.isWhitespace(current)) {
+        break;
+      }
+      i += 1;
+    }
+    return i;
+  }
+
+  /**
+   * Decodes the escape sequences of the string content between {@code start} and {@code end} into
+   * the target. Returns {@code false} without touching the target if there is none to decode.
+   */
+  static boolean unescape(
+      final String json, final int start, final int end, final StringBuilder target) {
+    final int firstEscape = json.indexOf('\\', start);
+    if (firstEscape < 0 || firstEscape >= end) {
+      return false;
+    }
+
+    target.setLength(0);
+    target.append(json, start, firstEscape);
+    for (int i = firstEscape; i < end; i++) {
+      final char c = json.charAt(i);
+      if (c != '\\') {
+        target.append(c);
+        continue;
+      }
+      i += 1;
+      final char escaped = json.charAt(i);
+      switch (escaped) {
+        case 'b' -> target.append('\b');
+        case 'f' -> target.append('\f');
+        case 'n' -> target.append('\n');
+        case 'r' -> target.append('\r');
+        case 't' -> target.append('\t');
+        case 'u' -> {
+          target.append((char) Integer.parseInt(json, i + 1, i + 5, 16));
+          i += 4;
+        }
+        default -> target.append(escaped);
+      }
+    }
+    return true;
+  }
+
+  private static int findMember(
+      final String json, final int objectStart, final String path, final int nameStart, final int nameEnd) {
+    int index = objectStart + 1;
+    while (true) {
+      index = skipWhitespace(json, index);
+      if (index >= json.length() || json.charAt(index) != '"') {
+        return -1;
+      }
+
+      final int keyEnd = skipString(json, index);
+      final int keyLength = keyEnd - index - 2;
+      final boolean matches =
+          keyLength == nameEnd - nameStart
+              && json.regionMatches(index + 1, path, nameStart, keyLength);
+
+      index = skipWhitespace(json, keyEnd);
+      if (index >= json.length() || json.charAt(index) != ':') {
+        return -1;
+      }
+      index = skipWhitespace(json, index + 1);
+      if (matches) {
+        return index;
+      }
+
+      index = skipWhitespace(json, skipValue(json, index));
+      if (index >= json.length() || json.charAt(index) != ',') {
+        return -1;
+      }
+      index += 1;
+    }
+  }
+
+  private static int skipString(final String json, final int index) {
+    int i = index + 1;
+    while (i < json.length()) {
+      final char c = json.charAt(i);
+      if (c == '\\') {
+        i += 2;
+      } else if (c == '"') {
+        return i + 1;
+      } else {
+        i += 1;
+      }
+    }
+    return i;
+  }
+
+  private static int skipWhitespace(final String json, final int index) {
+    int i = index;
+    while (i < json.length() && Character.isWhitespace(json.charAt(i))) {
+      i += 1;
+    }
+    return i;
+  }
+}
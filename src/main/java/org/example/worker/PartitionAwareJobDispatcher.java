@@ -0,0 +1,335 @@
+package org.example.worker;
+
+import io.camunda.client.api.response.ActivatedJob;
+import io.camunda.client.api.worker.JobClient;
+import io.camunda.client.api.worker.JobHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A job handler that queues the activated jobs per partition and runs them on its own threads, so
+ * that a lagging partition can't take all handler threads while the jobs of the other partitions
+ * wait.
+ *
+ * <p>The handler threads take the queued jobs from the partitions in turn. At most {@code
+ * maxThreadsPerPartition} threads handle jobs of the same partition at the same time. If all queues
+ * together hold {@code queueCapacity} jobs, {@link #handle} blocks until a job was taken from a
+ * queue. The job worker counts a job as active until {@code handle} returns, so an overloaded
+ * dispatcher slows down the activation of new jobs instead of failing jobs. A single lagging
+ * partition must not block the thread of the job worker though, because the thread would then not
+ * pass on the jobs of the other partitions. If the queue of one partition holds {@code
+ * queueCapacityPerPartition} jobs, the job is given back to the broker with a short backoff instead,
+ * without decrementing its retries.
+ *
+ * <p>A job that waited in the queue beyond its deadline is skipped, the broker has already made it
+ * available again. A failing handler or a rejected fail command never ends a handler thread.
+ *
+ * <p>The partition of a job is encoded in its key. Note that the creation of process instances
+ * (e.g. of {@code sign-up}) doesn't need any routing on the client side, because the gateway
+ * already distributes new process instances round-robin over all partitions.
+ *
+ * <pre>{@code
+ * final var dispatcher = new PartitionAwareJobDispatcher(createAccountHandler, 8, 4, 64, 256);
+ * client.newWorker().jobType("accounts:create").handler(dispatcher).maxJobsActive(256).open();
+ * }</pre>
+ */
+public class PartitionAwareJobDispatcher implements JobHandler, AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PartitionAwareJobDispatcher.class);
+
+  // the upper bits of a key contain the partition id, the lower 51 bits a partition-local counter
+  private static final int KEY_BITS = 51;
+  private static final Duration GIVEN_BACK_JOB_BACKOFF = Duration.ofMillis(100);
+
+  private final JobHandler handler;
+  private final int maxThreadsPerPartition;
+  private final int queueCapacityPerPartition;
+  private final int queueCapacity;
+  private final Semaphore freeSlots;
+  private final Clock clock;
+  private final ExecutorService executor;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition jobAvailable = lock.newCondition();
+  private final List<PartitionQueue> partitions = new ArrayList<>();
+  private int nextPartition;
+  private boolean closed;
+
+  public PartitionAwareJobDispatcher(
+      final JobHandler handler,
+      final int threads,
+      final int maxThreadsPerPartition,
+      final int queueCapacityPerPartition,
+      final int queueCapacity) {
+    this(
+        handler,
+        threads,
+        maxThreadsPerPartition,
+        queueCapacityPerPartition,
+        queueCapacity,
+        Clock.systemUTC());
+  }
+
+  public PartitionAwareJobDispatcher(
+      final JobHandler handler,
+      final int threads,
+      final int maxThreadsPerPartition,
+      final int queueCapacityPerPartition,
+      final int queueCapacity,
+      final Clock clock) {
+    this.handler = handler;
+    this.maxThreadsPerPartition = maxThreadsPerPartition;
+    this.queueCapacityPerPartition = queueCapacityPerPartition;
+    this.queueCapacity = queueCapacity;
+    this.clock = clock;
+    freeSlots = new Semaphore(queueCapacity);
+
+    final AtomicInteger threadCounter = new AtomicInteger();
+    executor =
+        Executors.newFixedThreadPool(
+            threads,
+            runnable -> {
+              final Thread thread =
+                  new Thread(runnable, "partition-dispatcher-" + threadCounter.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    for (int i = 0; i < threads; i++) {
+      executor.execute(this::handleQueuedJobs);
+    }
+  }
+
+  public static int partitionOf(final long key) {
+    return (int) (key >> KEY_BITS);
+  }
+
+  @Override
+  public void handle(final JobClient client, final ActivatedJob job) {
+    final int partitionId = partitionOf(job.getKey());
+
+    final String rejection = rejectionOf(partitionId);
+    if (rejection != null) {
+      giveBack(client, job, rejection);
+      return;
+    }
+
+    try {
+      freeSlots.acquire();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      giveBack(client, job, "The job worker was interrupted");
+      return;
+    }
+
+    final String lateRejection;
+    lock.lock();
+    try {
+      // another thread of the job worker may have filled the queue in the meantime
+      lateRejection = rejectionOf(partitionId);
+      if (lateRejection == null) {
+        partition(partitionId).jobs.add(new QueuedJob(client, job));
+        jobAvailable.signal();
+        return;
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    // pass the slot on, e.g. to the next blocked thread after close
+    freeSlots.release();
+    giveBack(client, job, lateRejection);
+  }
+
+  private String rejectionOf(final int partitionId) {
+    lock.lock();
+    try {
+      if (closed) {
+        return "The job dispatcher was closed";
+      }
+      if (partition(partitionId).jobs.size() >= queueCapacityPerPartition) {
+        return "The queue of partition " + partitionId + " is full";
+      }
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns the number of jobs of the partition that wait for a handler thread. */
+  public int queuedJobs(final int partitionId) {
+    lock.lock();
+    try {
+      return partition(partitionId).jobs.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    final List<QueuedJob> remainingJobs = new ArrayList<>();
+
+    lock.lock();
+    try {
+      closed = true;
+      partitions.forEach(partition -> remainingJobs.addAll(partition.jobs));
+      partitions.forEach(partition -> partition.jobs.clear());
+      // wake up the blocked job worker threads, they give their jobs back
+      freeSlots.release(queueCapacity);
+      jobAvailable.signalAll();
+    } finally {
+      lock.unlock();
+    }
+
+    remainingJobs.forEach(
+        queued -> giveBack(queued.client(), queued.job(), "The job dispatcher was closed"));
+
+    executor.shutdown();
+    try {
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void handleQueuedJobs() {
+    while (true) {
+      final PartitionQueue partition;
+      final QueuedJob queued;
+
+      lock.lock();
+      try {
+        PartitionQueue next;
+        while ((next = nextEligiblePartition()) == null) {
+          if (closed) {
+            return;
+          }
+          jobAvailable.await();
+        }
+        partition = next;
+        queued = partition.jobs.poll();
+        partition.activeThreads += 1;
+        freeSlots.release();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        lock.unlock();
+      }
+
+      try {
+        handle(queued);
+      } finally {
+        lock.lock();
+        try {
+          partition.activeThreads -= 1;
+          // another thread may wait for a job of this partition
+          jobAvailable.signal();
+        } finally {
+          lock.unlock();
+        }
+      }
+    }
+  }
+
+  private void handle(final QueuedJob queued) {
+    final ActivatedJob job = queued.job();
+    if (job.getDeadline() <= clock.millis()) {
+      // the job timed out in the queue, another worker may already handle it
+      LOG.debug("Skip job {} because its deadline has passed while it was queued", job.getKey());
+      return;
+    }
+
+    try {
+      handler.handle(queued.client(), job);
+    } catch (final Throwable e) {
+      LOG.warn("Failed to handle job {}", job.getKey(), e);
+      failJob(queued.client(), job, e);
+    }
+  }
+
+  private PartitionQueue nextEligiblePartition() {
+    if (closed) {
+      return null;
+    }
+
+    for (int i = 0; i < partitions.size(); i++) {
+      final int index = (nextPartition + i) % partitions.size();
+      final PartitionQueue partition = partitions.get(index);
+
+      if (!partition.jobs.isEmpty() && partition.activeThreads < maxThreadsPerPartition) {
+        nextPartition = index + 1;
+        return partition;
+      }
+    }
+    return null;
+  }
+
+  private PartitionQueue partition(final int partitionId) {
+    for (final PartitionQueue partition : partitions) {
+      if (partition.partitionId == partitionId) {
+        return partition;
+      }
+    }
+
+    final PartitionQueue partition = new PartitionQueue(partitionId);
+    partitions.add(partition);
+    return partition;
+  }
+
+  private static void failJob(final JobClient client, final ActivatedJob job, final Throwable e) {
+    try {
+      client
+          .newFailCommand(job)
+          .retries(job.getRetries() - 1)
+          .errorMessage(e.getMessage())
+          .send()
+          .join();
+    } catch (final Exception failure) {
+      // e.g. the job timed out meanwhile, the broker makes it available again
+      LOG.warn("Failed to fail job {}", job.getKey(), failure);
+    }
+  }
+
+  private static void giveBack(final JobClient client, final ActivatedJob job, final String reason) {
+    // keep the retries, the job itself didn't fail
+    try {
+      client
+          .newFailCommand(job)
+          .retries(Math.max(job.getRetries(), 1))
+          .retryBackoff(GIVEN_BACK_JOB_BACKOFF)
+          .errorMessage(reason)
+          .send()
+          .join();
+    } catch (final Exception failure) {
+      LOG.warn("Failed to give back job {}", job.getKey(), failure);
+    }
+  }
+
+  private static final class PartitionQueue {
+
+    private final int partitionId;
+    private final ArrayDeque<QueuedJob> jobs = new ArrayDeque<>();
+    private int activeThreads;
+
+    private PartitionQueue(final int partitionId) {
+      this.partitionId = partitionId;
+    }
+  }
+
+  private record QueuedJob(JobClient client, ActivatedJob job) {}
+}
@@ -0,0 +1,14 @@
+package org.example.worker;
+
+/**
+ * A job handler for high-volume job types that doesn't create garbage per job. It reads the
+ * variables through the reused {@link JobView} and writes its result into the reused {@link
+ * CompletionBuilder}; the {@link PooledJobHandlerAdapter} sends the command afterwards.
+ *
+ * <p>Both arguments are only valid until the handler returns.
+ */
+@FunctionalInterface
+public interface PooledJobHandler {
+
+  void handle(JobView job, CompletionBuilder completion) throws Exception;
+}
@@ -0,0 +1,57 @@
+package org.example.worker;
+
+import io.camunda.client.api.response.ActivatedJob;
+import io.camunda.client.api.worker.JobClient;
+import io.camunda.client.api.worker.JobHandler;
+
+/**
+ * Runs a {@link PooledJobHandler} as a regular job handler. Each handler thread has its own {@link
+ * JobView} and {@link CompletionBuilder} that are reused for all jobs, so the handler itself doesn't
+ * allocate per job. The only copy that remains is the JSON string of the variables that the command
+ * to complete the job needs.
+ *
+ * <pre>{@code
+ * client.newWorker()
+ *     .jobType("accounts:create")
+ *     .handler(new PooledJobHandlerAdapter(new CreateAccountJobHandler(accounts)))
+ *     .open();
+ * }</pre>
+ */
+public class PooledJobHandlerAdapter implements JobHandler {
+
+  private final PooledJobHandler handler;
+  private final ThreadLocal<Slot> slots = ThreadLocal.withInitial(Slot::new);
+
+  public PooledJobHandlerAdapter(final PooledJobHandler handler) {
+    this.handler = handler;
+  }
+
+  @Override
+  public void handle(final JobClient client, final ActivatedJob job) throws Exception {
+    final Slot slot = slots.get();
+    final JobView view = slot.job.wrap(job);
+    final CompletionBuilder completion = slot.completion.reset();
+    try {
+      handler.handle(view, completion);
+
+      if (completion.isError()) {
+        client
+            .newThrowErrorCommand(job.getKey())
+            .errorCode(completion.errorCode())
+            .errorMessage(completion.errorMessage().toString())
+            .variables(completion.variables().toString())
+            .send()
+            .join();
+      } else {
+        client.newCompleteCommand(job.getKey()).variables(completion.variables().toString()).send().join();
+      }
+    } finally {
+      view.clear();
+    }
+  }
+
+  private static final class Slot {
+    private final JobView job = new JobView();
+    private final CompletionBuilder completion = new CompletionBuilder();
+  }
+}
@@ -0,0 +1,56 @@
+package org.example.worker;
+
+import org.example.account.AccountService;
+import org.example.model.Account;
+
+/**
+ * Handles the jobs of {@code subscriptions:subscribe}: subscribes the email address of the {@code
+ * account} to the newsletter.
+ *
+ * <p>If the job has only the {@code account.id}, the email address is looked up in the {@link
+ * AccountService}, e.g. a {@link org.example.account.CachedAccountService}. The lookup creates the
+ * id as a string, the handler is garbage-free only if the job has the email address as well.
+ */
+public class SubscribeJobHandler implements PooledJobHandler {
+
+  public static final String JOB_TYPE = "subscriptions:subscribe";
+
+  private final AccountService accounts;
+  private final NewsletterSubscriptions subscriptions;
+
+  public SubscribeJobHandler(
+      final AccountService accounts, final NewsletterSubscriptions subscriptions) {
+    this.accounts = accounts;
+    this.subscriptions = subscriptions;
+  }
+
+  @Override
+  public void handle(final JobView job, final CompletionBuilder completion) {
+    final VariableView accountId = job.variable("account.id");
+    if (!accountId.isString()) {
+      throw new IllegalStateException("Expected the job to have an account with id");
+    }
+
+    final VariableView email = job.variable("account.email");
+    if (email.isString()) {
+      subscriptions.subscribe(accountId, email);
+      return;
+    }
+    final String id = accountId.toString();
+    final Account account =
+        accounts
+            .find(id)
+            .orElseThrow(
+                () ->
+                    new IllegalStateException(
+                        "Expected account '%s' to exist but it was not found".formatted(id)));
+    subscriptions.subscribe(id, account.email());
+  }
+
+  /** The newsletter service. The arguments are only valid during the call. */
+  @FunctionalInterface
+  public interface NewsletterSubscriptions {
+
+    void subscribe(CharSequence accountId, CharSequence email);
+  }
+}
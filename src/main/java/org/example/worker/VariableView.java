@@ -0,0 +1,155 @@
+package org.example.worker;
+
+/**
+ * A flyweight over one value in the variables JSON of a job, returned by {@link
+ * JobView#variable(String)}. The view doesn't copy or parse the value until it is read: a string is
+ * read directly from the raw JSON as a {@link CharSequence}, a number or a boolean is parsed in
+ * place.
+ *
+ * <p>The view is only valid until the handler returns, because the next job reuses it. A handler
+ * that keeps a value must copy it, for example with {@link #toString()}.
+ */
+public final class VariableView implements CharSequence {
+
+  private String json;
+  private int start = -1;
+  private int end = -1;
+  private boolean string;
+
+  // the decoded content of a string with escape sequences
+  private final StringBuilder decoded = new StringBuilder();
+  private boolean escaped;
+
+  void bind(final String json, final int valueStart) {
+    this.json = json;
+    final int valueEnd = JsonScanner.skipValue(json, valueStart);
+    string = json.charAt(valueStart) == '"';
+    if (string) {
+      start = valueStart + 1;
+      end = valueEnd - 1;
+      escaped = JsonScanner.unescape(json, start, end, decoded);
+    } else {
+      start = valueStart;
+      end = valueEnd;
+      escaped = false;
+    }
+  }
+
+  void clear() {
+    json = null;
+    start = -1;
+    end = -1;
+    string = false;
+    escaped = false;
+    decoded.setLength(0);
+  }
+
+  public boolean isPresent() {
+    return start >= 0;
+  }
+
+  public boolean isNull() {
+    return !isPresent() || (!string && json.startsWith("null", start));
+  }
+
+  public boolean isString() {
+    return string;
+  }
+
+  public boolean asBoolean() {
+    requireValue();
+    if (!string && json.startsWith("true", start)) {
+      return true;
+    }
+    if (!string && json.startsWith("false", start)) {
+      return false;
+    }
+    throw new IllegalStateException("Expected a boolean but was " + json.substring(start, end));
+  }
+
+  public long asLong() {
+    requireValue();
+    int index = start;
+    final boolean negative = json.charAt(index) == '-';
+    if (negative) {
+      index += 1;
+    }
+    if (string || index == end) {
+      throw new IllegalStateException("Expected a number but was " + json.substring(start, end));
+    }
+
+    long value = 0;
+    for (; index < end; index++) {
+      final char c = json.charAt(index);
+      if (c < '0' || c > '9') {
+        throw new IllegalStateException("Expected an integer but was " + json.substring(start, end));
+      }
+      value = value * 10 + (c - '0');
+    }
+    return negative ? -value : value;
+  }
+
+  /** Compares the content of the string value with the given characters, without copying it. */
+  public boolean contentEquals(final CharSequence other) {
+    if (!string || length() != other.length()) {
+      return false;
+    }
+    for (int i = 0; i < other.length(); i++) {
+      if (charAt(i) != other.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public int indexOf(final char c) {
+    for (int i = 0; i < length(); i++) {
+      if (charAt(i) == c) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Appends the value as JSON, e.g. to pass a nested object on to the next task unchanged. */
+  void appendJsonTo(final StringBuilder target) {
+    requireValue();
+    if (string) {
+      target.append(json, start - 1, end + 1);
+    } else {
+      target.append(json, start, end);
+    }
+  }
+
+  @Override
+  public int length() {
+    requireValue();
+    return escaped ? decoded.length() : end - start;
+  }
+
+  @Override
+  public char charAt(final int index) {
+    requireValue();
+    return escaped ? decoded.charAt(index) : json.charAt(start + index);
+  }
+
+  @Override
+  public CharSequence subSequence(final int from, final int to) {
+    return toString().substring(from, to);
+  }
+
+  /** Copies the value. For a string, this is its content, otherwise the JSON of the value. */
+  @Override
+  public String toString() {
+    if (!isPresent()) {
+      return "";
+    }
+    return escaped ? decoded.toString() : json.substring(start, end);
+  }
+
+  private void requireValue() {
+    if (!isPresent()) {
+      throw new IllegalStateException("Expected the variable to be present but it wasn't");
+    }
+  }
+}
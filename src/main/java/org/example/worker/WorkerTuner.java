@@ -0,0 +1,194 @@
+package org.example.worker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Derives the settings of a job worker from the observed handler latency and queue depth, instead
+ * of one static setting for all job types.
+ *
+ * <ul>
+ *   <li><b>Prefetch:</b> while the next activation is on its way, the handler threads should have
+ *       jobs to work on. A worker of a fast job type (e.g. {@code backend:confirm-account}) needs
+ *       many jobs in its buffer, a worker of a slow job type (e.g. sending an email) only a few,
+ *       otherwise the jobs wait in the buffer while other workers are idle and may time out.
+ *   <li><b>maxJobsActive:</b> the client activates more jobs when less than 30% of {@code
+ *       maxJobsActive} are left, so the batch size is chosen such that the remaining jobs cover the
+ *       handler threads and the prefetch.
+ *   <li><b>Poll interval and request timeout:</b> if no jobs were activated in {@value
+ *       #LONG_POLL_SWITCH_TUNINGS} tunings in a row, the worker waits with a long poll at the broker
+ *       until jobs are available. It polls with the default request timeout again after jobs were
+ *       activated in as many tunings in a row, so a job type with sporadic jobs doesn't switch the
+ *       request timeout, and reopen the worker, on each tuning. If jobs queue up in the worker, it
+ *       polls again right away. The worker counts as busy when the average queue
+ *       depth rises above {@value #BUSY_QUEUE_DEPTH} jobs, and as not busy when it falls below
+ *       {@value #NOT_BUSY_QUEUE_DEPTH}, so a queue that hovers around one job doesn't switch the
+ *       poll interval, and reopen the worker, on each tuning.
+ *   <li><b>Job timeout:</b> covers the time that a job waits in the buffer before it is handled.
+ * </ul>
+ *
+ * <p>The handler threads record their latency without locking. The observations are folded into an
+ * exponentially weighted moving average on each call of {@link #tune()}.
+ */
+public class WorkerTuner {
+
+  // the client activates new jobs when the remaining jobs drop below this share of maxJobsActive
+  static final double ACTIVATION_THRESHOLD = 0.3;
+
+  static final double BUSY_QUEUE_DEPTH = 2.0;
+  static final double NOT_BUSY_QUEUE_DEPTH = 0.5;
+  static final int LONG_POLL_SWITCH_TUNINGS = 3;
+
+  static final Duration BUSY_POLL_INTERVAL = Duration.ofMillis(10);
+  static final Duration DEFAULT_POLL_INTERVAL = Duration.ofMillis(100);
+  static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+  static final Duration LONG_POLL_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+  static final Duration MIN_JOB_TIMEOUT = Duration.ofSeconds(30);
+
+  private static final double SMOOTHING = 0.3;
+  private static final int JOB_TIMEOUT_SAFETY_FACTOR = 3;
+
+  private final int handlerThreads;
+  private final int maxJobsActiveLimit;
+  private final long activationRoundTripNanos;
+
+  // observations since the last tuning
+  private final LongAdder handledJobs = new LongAdder();
+  private final LongAdder handlerNanos = new LongAdder();
+  private final LongAdder activatedJobs = new LongAdder();
+  private final AtomicInteger bufferedJobs = new AtomicInteger();
+
+  private double averageLatencyNanos = -1;
+  private double averageQueueDepth;
+  private boolean busy;
+  private boolean longPolling;
+  // the tunings in a row that contradict the current request timeout
+  private int longPollSwitchTunings;
+  private WorkerTuning current;
+
+  /**
+   * @param handlerThreads the number of threads that handle the jobs of the worker
+   * @param maxJobsActiveLimit the upper bound for {@code maxJobsActive}
+   * @param activationRoundTrip the time that an activation takes until the jobs arrive
+   */
+  public WorkerTuner(
+      final int handlerThreads, final int maxJobsActiveLimit, final Duration activationRoundTrip) {
+    if (handlerThreads <= 0) {
+      throw new IllegalArgumentException(
+          "Expected handler threads to be positive but was " + handlerThreads);
+    }
+    if (maxJobsActiveLimit < handlerThreads) {
+      throw new IllegalArgumentException(
+          "Expected max jobs active limit to be at least %d but was %d"
+              .formatted(handlerThreads, maxJobsActiveLimit));
+    }
+    this.handlerThreads = handlerThreads;
+    this.maxJobsActiveLimit = maxJobsActiveLimit;
+    this.activationRoundTripNanos = activationRoundTrip.toNanos();
+
+    // until the first jobs are handled, the worker behaves like a worker with default settings
+    current =
+        new WorkerTuning(
+            Math.min(32, maxJobsActiveLimit),
+            DEFAULT_POLL_INTERVAL,
+            DEFAULT_REQUEST_TIMEOUT,
+            MIN_JOB_TIMEOUT);
+  }
+
+  public void jobsActivated(final int count) {
+    activatedJobs.add(count);
+    bufferedJobs.addAndGet(count);
+  }
+
+  public void jobStarted() {
+    bufferedJobs.decrementAndGet();
+  }
+
+  public void jobHandled(final long latencyNanos) {
+    handledJobs.increment();
+    handlerNanos.add(latencyNanos);
+  }
+
+  /** Returns the jobs that were activated but not started yet. */
+  public int queueDepth() {
+    return Math.max(bufferedJobs.get(), 0);
+  }
+
+  public Duration averageLatency() {
+    return Duration.ofNanos(Math.max((long) averageLatencyNanos, 0));
+  }
+
+  public WorkerTuning current() {
+    return current;
+  }
+
+  /** Folds the observations since the last call into the averages and derives new settings. */
+  public synchronized WorkerTuning tune() {
+    final long handled = handledJobs.sumThenReset();
+    final long nanos = handlerNanos.sumThenReset();
+    final long activated = activatedJobs.sumThenReset();
+    final int queueDepth = queueDepth();
+
+    if (handled > 0) {
+      final double latency = (double) nanos / handled;
+      averageLatencyNanos =
+          averageLatencyNanos < 0
+              ? latency
+              : SMOOTHING * latency + (1 - SMOOTHING) * averageLatencyNanos;
+    }
+    averageQueueDepth = SMOOTHING * queueDepth + (1 - SMOOTHING) * averageQueueDepth;
+    if (busy ? averageQueueDepth < NOT_BUSY_QUEUE_DEPTH : averageQueueDepth > BUSY_QUEUE_DEPTH) {
+      busy = !busy;
+    }
+    final boolean idle = activated == 0 && queueDepth == 0;
+    longPollSwitchTunings = idle != longPolling ? longPollSwitchTunings + 1 : 0;
+    if (longPollSwitchTunings >= LONG_POLL_SWITCH_TUNINGS) {
+      longPolling = !longPolling;
+      longPollSwitchTunings = 0;
+    }
+    final Duration requestTimeout =
+        longPolling ? LONG_POLL_REQUEST_TIMEOUT : DEFAULT_REQUEST_TIMEOUT;
+
+    if (averageLatencyNanos < 0) {
+      // nothing handled yet, only switch the request timeout
+      current =
+          new WorkerTuning(
+              current.maxJobsActive(),
+              current.pollInterval(),
+              requestTimeout,
+              current.jobTimeout());
+      return current;
+    }
+
+    // the jobs that the handler threads finish while the next activation is on its way
+    final long prefetch =
+        (long)
+            Math.ceil(handlerThreads * activationRoundTripNanos / Math.max(averageLatencyNanos, 1));
+    final int maxJobsActive =
+        (int)
+            Math.min(
+                maxJobsActiveLimit,
+                Math.max(
+                    handlerThreads,
+                    (long) Math.ceil((handlerThreads + prefetch) / ACTIVATION_THRESHOLD)));
+
+    final Duration pollInterval = busy ? BUSY_POLL_INTERVAL : DEFAULT_POLL_INTERVAL;
+
+    // the last job of a full buffer waits until all jobs before it are handled
+    final long bufferedNanos =
+        (long)
+            (Math.max(maxJobsActive, averageQueueDepth + handlerThreads)
+                * averageLatencyNanos
+                / handlerThreads);
+    final Duration jobTimeout =
+        max(MIN_JOB_TIMEOUT, Duration.ofNanos(bufferedNanos * JOB_TIMEOUT_SAFETY_FACTOR));
+
+    current = new WorkerTuning(maxJobsActive, pollInterval, requestTimeout, jobTimeout);
+    return current;
+  }
+
+  private static Duration max(final Duration a, final Duration b) {
+    return a.compareTo(b) >= 0 ? a : b;
+  }
+}
@@ -0,0 +1,26 @@
+package org.example.worker;
+
+import java.time.Duration;
+
+/** The settings of a job worker that the {@link WorkerTuner} derived. */
+public record WorkerTuning(
+    int maxJobsActive, Duration pollInterval, Duration requestTimeout, Duration jobTimeout) {
+
+  // a worker is reopened to apply new settings, so small changes are not worth it
+  private static final double SIGNIFICANT_CHANGE = 0.25;
+
+  /**
+   * Returns {@code true} if the settings differ enough from the other settings to reopen the worker:
+   * the polling mode changed, or the batch size or job timeout changed by at least 25%.
+   */
+  public boolean differsSignificantlyFrom(final WorkerTuning other) {
+    return !pollInterval.equals(other.pollInterval)
+        || !requestTimeout.equals(other.requestTimeout)
+        || changedSignificantly(maxJobsActive, other.maxJobsActive)
+        || changedSignificantly(jobTimeout.toMillis(), other.jobTimeout.toMillis());
+  }
+
+  private static boolean changedSignificantly(final long value, final long previous) {
+    return Math.abs(value - previous) >= SIGNIFICANT_CHANGE * Math.max(previous, 1);
+  }
+}
@@ -0,0 +1,101 @@
+package org.example.account;
+
+import org.example.model.Account;
+import org.example.model.AccountServiceException;
+import org.example.worker.CompletionBuilder;
+import org.example.worker.JobView;
+import org.example.worker.SubscribeJobHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class CachedAccountServiceTest {
+
+    private static final Account ACCOUNT =
+            new Account("account-id-0001", "Demo", "demo@camunda.com", true, "activation-code-0001");
+
+    private final InMemoryAccountService store = spy(new InMemoryAccountService());
+    private final CachedAccountService accounts = new CachedAccountService(store, 100);
+
+    @Test
+    void shouldReadAccountFromCache() {
+        // given
+        store.create(ACCOUNT);
+
+        // when
+        final Optional<Account> first = accounts.find(ACCOUNT.id());
+        final Optional<Account> second = accounts.find(ACCOUNT.id());
+
+        // then
+        assertThat(first).contains(ACCOUNT);
+        assertThat(second).contains(ACCOUNT);
+        verify(store, times(1)).find(ACCOUNT.id());
+        assertThat(accounts.cache().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldInvalidateAccountOnActivation() {
+        // given
+        accounts.create(ACCOUNT);
+        accounts.find(ACCOUNT.id());
+
+        // when
+        accounts.activate(ACCOUNT.id());
+
+        // then
+        assertThat(accounts.cache().get(ACCOUNT.id())).isNull();
+        assertThat(accounts.find(ACCOUNT.id())).contains(ACCOUNT);
+        assertThat(accounts.status(ACCOUNT.id())).contains(AccountStatus.ACTIVE);
+    }
+
+    @Test
+    void shouldInvalidateAccountOnDeletion() {
+        // given
+        accounts.create(ACCOUNT);
+        accounts.find(ACCOUNT.id());
+
+        // when
+        accounts.delete(ACCOUNT.id());
+
+        // then
+        assertThat(accounts.find(ACCOUNT.id())).isEmpty();
+        assertThat(accounts.status(ACCOUNT.id())).contains(AccountStatus.DELETED);
+    }
+
+    @Test
+    void shouldNotActivateDeletedAccount() {
+        // given
+        accounts.create(ACCOUNT);
+        accounts.delete(ACCOUNT.id());
+
+        // when / then
+        assertThatThrownBy(() -> accounts.activate(ACCOUNT.id()))
+                .isInstanceOf(AccountServiceException.class)
+                .hasMessageContaining("is DELETED");
+    }
+
+    @Test
+    void shouldSubscribeAccountByIdOnly() {
+        // given
+        accounts.create(ACCOUNT);
+        final List<String> subscribed = new ArrayList<>();
+        final var handler = new SubscribeJobHandler(accounts, (accountId, email) -> subscribed.add(accountId + " " + email));
+
+        final var job = new JobView();
+        job.wrap(1, 1, SubscribeJobHandler.JOB_TYPE, 3, "{\"account\": {\"id\": \"account-id-0001\"}}");
+
+        // when
+        handler.handle(job, new CompletionBuilder());
+
+        // then
+        assertThat(subscribed).containsExactly("account-id-0001 demo@camunda.com");
+    }
+}
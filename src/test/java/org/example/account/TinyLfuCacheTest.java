@@ -0,0 +1,108 @@
+package org.example.account;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TinyLfuCacheTest {
+
+    private static final int HOT_ACCOUNTS = 50;
+
+    @Test
+    void shouldNotExceedMaximumSize() {
+        // given
+        final var cache = new TinyLfuCache<Integer, String>(100);
+
+        // when
+        IntStream.range(0, 1_000).forEach(i -> cache.put(i, "value-" + i));
+
+        // then
+        assertThat(cache.size()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldKeepFrequentlyUsedEntriesDuringScan() {
+        // given
+        final var cache = new TinyLfuCache<String, String>(100);
+
+        // when
+        final int hotHits = runSignUpWorkload(cache::get, cache::put);
+
+        // then
+        assertThat(IntStream.range(0, HOT_ACCOUNTS).filter(i -> cache.get("hot-" + i) != null)).hasSize(HOT_ACCOUNTS);
+        assertThat(hotHits).isGreaterThan(HOT_ACCOUNTS * 40);
+    }
+
+    @Test
+    void shouldEvictFrequentlyUsedEntriesFromLruCache() {
+        // given
+        // for comparison: the same workload evicts the frequently used entries from a plain LRU cache
+        final var lruCache = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+                return size() > 100;
+            }
+        };
+
+        // when
+        final int hotHits = runSignUpWorkload(lruCache::get, lruCache::put);
+
+        // then
+        assertThat(IntStream.range(0, HOT_ACCOUNTS).filter(i -> lruCache.containsKey("hot-" + i))).isEmpty();
+        assertThat(hotHits).isZero();
+    }
+
+    /**
+     * Looks up many new accounts only once, e.g. during a burst of sign-ups, while a few accounts are
+     * looked up again and again. Returns the number of lookups of the frequently used accounts that
+     * hit the cache.
+     */
+    private static int runSignUpWorkload(final Function<String, String> get, final BiConsumer<String, String> put) {
+        int hotHits = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 200 == 0) {
+                for (int hot = 0; hot < HOT_ACCOUNTS; hot++) {
+                    if (get.apply("hot-" + hot) == null) {
+                        put.accept("hot-" + hot, "account");
+                    } else {
+                        hotHits += 1;
+                    }
+                }
+            }
+            if (get.apply("new-" + i) == null) {
+                put.accept("new-" + i, "account");
+            }
+        }
+        return hotHits;
+    }
+
+    @Test
+    void shouldInvalidateEntry() {
+        // given
+        final var cache = new TinyLfuCache<String, String>(10);
+        cache.put("account-id-0001", "account");
+        cache.get("account-id-0001");
+
+        // when
+        cache.invalidate("account-id-0001");
+
+        // then
+        assertThat(cache.get("account-id-0001")).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectTooSmallCache() {
+        assertThatThrownBy(() -> new TinyLfuCache<String, String>(1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
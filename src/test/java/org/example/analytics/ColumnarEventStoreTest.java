@@ -0,0 +1,201 @@
+package org.example.analytics;
+
+import io.camunda.zeebe.protocol.record.ImmutableRecord;
+import io.camunda.zeebe.protocol.record.Record;
+import io.camunda.zeebe.protocol.record.RecordType;
+import io.camunda.zeebe.protocol.record.RecordValue;
+import io.camunda.zeebe.protocol.record.ValueType;
+import io.camunda.zeebe.protocol.record.intent.Intent;
+import io.camunda.zeebe.protocol.record.intent.JobIntent;
+import io.camunda.zeebe.protocol.record.intent.ProcessInstanceIntent;
+import io.camunda.zeebe.protocol.record.value.BpmnElementType;
+import io.camunda.zeebe.protocol.record.value.ImmutableJobRecordValue;
+import io.camunda.zeebe.protocol.record.value.ImmutableProcessInstanceRecordValue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ColumnarEventStoreTest {
+
+    private static final String SIGN_UP = "sign-up";
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldCountSignUpFunnel() throws IOException {
+        // given
+        final Path file = directory.resolve("events.bin");
+
+        try (final var exporter = new ProcessEventExporter(file, 8)) {
+            for (int i = 0; i < 10; i++) {
+                final long key = 100 + i;
+                completed(exporter, key, "new-sign-up");
+                completed(exporter, key, "create-account");
+                if (i < 6) {
+                    completed(exporter, key, "message-email-confirmed");
+                }
+                if (i < 5) {
+                    // the activation of one confirmed sign-up is still running
+                    completed(exporter, key, "activate-account");
+                }
+                if (i == 6 || i == 7) {
+                    completed(exporter, key, "timer-three-days");
+                    completed(exporter, key, "delete-account");
+                }
+                if (i >= 8) {
+                    completed(exporter, key, "sign-up-rejected");
+                }
+            }
+        }
+
+        // when
+        try (final var store = ColumnarEventStore.open(file)) {
+            final Funnel funnel = store.funnel(SIGN_UP, "new-sign-up", "message-email-confirmed", "activate-account");
+
+            // then
+            assertThat(store.count()).isEqualTo(37);
+            assertThat(store.rowGroups()).isEqualTo(5);
+
+            assertThat(funnel.steps()).containsExactly(
+                    new Funnel.Step("new-sign-up", 10),
+                    new Funnel.Step("message-email-confirmed", 6),
+                    new Funnel.Step("activate-account", 5));
+            assertThat(funnel.conversion()).isEqualTo(0.5);
+            assertThat(funnel.conversion(0, 1)).isEqualTo(0.6);
+
+            assertThat(store.rate(SIGN_UP, "new-sign-up", "sign-up-rejected")).isEqualTo(0.2);
+            assertThat(store.rate(SIGN_UP, "new-sign-up", "delete-account")).isEqualTo(0.2);
+        }
+    }
+
+    @Test
+    void shouldExportOnlyEventsOfGivenProcesses() throws IOException {
+        // given
+        final Path file = directory.resolve("events.bin");
+
+        // when
+        try (final var exporter = new ProcessEventExporter(file, 100)) {
+            assertThat(exporter.export(event(1, SIGN_UP, "new-sign-up"))).isTrue();
+            assertThat(exporter.export(event(2, "prCreatedProcess", "requestReview"))).isTrue();
+            assertThat(exporter.export(event(3, "automatedTestsProcess", "runTests"))).isFalse();
+        }
+
+        // then
+        try (final var store = ColumnarEventStore.open(file)) {
+            final List<ProcessEvent> events = new ArrayList<>();
+            store.forEach(events::add);
+
+            assertThat(events)
+                    .extracting(ProcessEvent::bpmnProcessId)
+                    .containsExactly(SIGN_UP, "prCreatedProcess");
+        }
+    }
+
+    @Test
+    void shouldAppendAfterIncompleteRowGroup() throws IOException {
+        // given
+        final Path file = directory.resolve("events.bin");
+        try (final var exporter = new ProcessEventExporter(file, 2)) {
+            completed(exporter, 1, "new-sign-up");
+            completed(exporter, 1, "message-email-confirmed");
+        }
+
+        // a row group without the magic number, as if the application crashed while writing it
+        try (final var channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(64).putInt(0).putInt(64).flip());
+        }
+
+        try (final var store = ColumnarEventStore.open(file)) {
+            assertThat(store.count()).isEqualTo(2);
+        }
+
+        // when
+        try (final var exporter = new ProcessEventExporter(file, 2, Set.of(SIGN_UP))) {
+            completed(exporter, 1, "activate-account");
+        }
+
+        // then
+        try (final var store = ColumnarEventStore.open(file)) {
+            assertThat(store.count()).isEqualTo(3);
+            assertThat(store.rowGroups()).isEqualTo(2);
+            assertThat(store.funnel(SIGN_UP, "new-sign-up", "message-email-confirmed", "activate-account")
+                    .conversion()).isEqualTo(1.0);
+        }
+    }
+
+    @Test
+    void shouldExportRecordsOfEngine() throws IOException {
+        // given
+        final Path file = directory.resolve("events.bin");
+        final var createAccount = ImmutableProcessInstanceRecordValue.builder()
+                .withBpmnProcessId(SIGN_UP)
+                .withProcessInstanceKey(1)
+                .withElementId("create-account")
+                .withBpmnElementType(BpmnElementType.SERVICE_TASK)
+                .build();
+        final var createAccountJob = ImmutableJobRecordValue.builder()
+                .withBpmnProcessId(SIGN_UP)
+                .withProcessInstanceKey(1)
+                .withElementId("create-account")
+                .withType("accounts:create")
+                .build();
+
+        final List<Record<?>> records = List.of(
+                record(ValueType.PROCESS_INSTANCE, ProcessInstanceIntent.ELEMENT_ACTIVATED, createAccount, 10),
+                record(ValueType.JOB, JobIntent.CREATED, createAccountJob, 11),
+                record(ValueType.JOB, JobIntent.COMPLETED, createAccountJob, 20),
+                // the intermediate states of the element are not exported
+                record(ValueType.PROCESS_INSTANCE, ProcessInstanceIntent.ELEMENT_COMPLETING, createAccount, 21),
+                record(ValueType.PROCESS_INSTANCE, ProcessInstanceIntent.ELEMENT_COMPLETED, createAccount, 22));
+
+        // when
+        try (final var exporter = new ProcessEventExporter(file, 100)) {
+            ProcessEventRecords.exportAll(records, exporter);
+        }
+
+        // then
+        try (final var store = ColumnarEventStore.open(file)) {
+            final List<ProcessEvent> events = new ArrayList<>();
+            store.forEach(events::add);
+
+            assertThat(events).containsExactly(
+                    new ProcessEvent(10, 1, SIGN_UP, "create-account", ProcessEvent.Type.ELEMENT_ACTIVATED),
+                    new ProcessEvent(11, 1, SIGN_UP, "create-account", ProcessEvent.Type.JOB_CREATED),
+                    new ProcessEvent(20, 1, SIGN_UP, "create-account", ProcessEvent.Type.JOB_COMPLETED),
+                    new ProcessEvent(22, 1, SIGN_UP, "create-account", ProcessEvent.Type.ELEMENT_COMPLETED));
+        }
+    }
+
+    private static void completed(final ProcessEventExporter exporter, final long processInstanceKey,
+                                  final String elementId) throws IOException {
+        exporter.export(event(processInstanceKey, SIGN_UP, elementId));
+    }
+
+    private static ProcessEvent event(final long processInstanceKey, final String bpmnProcessId,
+                                      final String elementId) {
+        return new ProcessEvent(0, processInstanceKey, bpmnProcessId, elementId, ProcessEvent.Type.ELEMENT_COMPLETED);
+    }
+
+    private static <T extends RecordValue> Record<T> record(
+            final ValueType valueType, final Intent intent, final T value,
+            final long timestamp) {
+        return ImmutableRecord.<T>builder()
+                .withRecordType(RecordType.EVENT)
+                .withValueType(valueType)
+                .withIntent(intent)
+                .withValue(value)
+                .withTimestamp(timestamp)
+                .build();
+    }
+}
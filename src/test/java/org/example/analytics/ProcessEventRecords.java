@@ -0,0 +1,67 @@
+package org.example.analytics;
+
+import io.camunda.zeebe.protocol.record.Record;
+import io.camunda.zeebe.protocol.record.RecordType;
+import io.camunda.zeebe.protocol.record.intent.JobIntent;
+import io.camunda.zeebe.protocol.record.intent.ProcessInstanceIntent;
+import io.camunda.zeebe.protocol.record.value.JobRecordValue;
+import io.camunda.zeebe.protocol.record.value.ProcessInstanceRecordValue;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Maps the records of the engine, for example of the {@code RecordStreamSource} of the {@code
+ * ZeebeTestEngine}, to the events that the {@link ProcessEventExporter} writes.
+ */
+public final class ProcessEventRecords {
+
+    private ProcessEventRecords() {}
+
+    public static void exportAll(final Iterable<? extends Record<?>> records, final ProcessEventExporter exporter)
+            throws IOException {
+        for (final Record<?> record : records) {
+            final Optional<ProcessEvent> event = toProcessEvent(record);
+            if (event.isPresent()) {
+                exporter.export(event.get());
+            }
+        }
+    }
+
+    public static Optional<ProcessEvent> toProcessEvent(final Record<?> record) {
+        if (record.getRecordType() != RecordType.EVENT) {
+            return Optional.empty();
+        }
+
+        if (record.getValue() instanceof final ProcessInstanceRecordValue value) {
+            return typeOf((ProcessInstanceIntent) record.getIntent()).map(type -> new ProcessEvent(
+                    record.getTimestamp(), value.getProcessInstanceKey(), value.getBpmnProcessId(), value.getElementId(),
+                    type));
+        }
+        if (record.getValue() instanceof final JobRecordValue value) {
+            return typeOf((JobIntent) record.getIntent()).map(type -> new ProcessEvent(
+                    record.getTimestamp(), value.getProcessInstanceKey(), value.getBpmnProcessId(), value.getElementId(),
+                    type));
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<ProcessEvent.Type> typeOf(final ProcessInstanceIntent intent) {
+        return Optional.ofNullable(switch (intent) {
+            case ELEMENT_ACTIVATED -> ProcessEvent.Type.ELEMENT_ACTIVATED;
+            case ELEMENT_COMPLETED -> ProcessEvent.Type.ELEMENT_COMPLETED;
+            case ELEMENT_TERMINATED -> ProcessEvent.Type.ELEMENT_TERMINATED;
+            default -> null;
+        });
+    }
+
+    private static Optional<ProcessEvent.Type> typeOf(final JobIntent intent) {
+        return Optional.ofNullable(switch (intent) {
+            case CREATED -> ProcessEvent.Type.JOB_CREATED;
+            case COMPLETED -> ProcessEvent.Type.JOB_COMPLETED;
+            case FAILED -> ProcessEvent.Type.JOB_FAILED;
+            case ERROR_THROWN -> ProcessEvent.Type.JOB_ERROR_THROWN;
+            default -> null;
+        });
+    }
+}
@@ -27,6 +27,7 @@ import io.camunda.process.test.api.assertions.ProcessInstanceSelectors;
 import io.camunda.zeebe.process.test.assertions.BpmnAssert;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -38,6 +39,7 @@ import java.util.concurrent.TimeoutException;
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
 
+@Tag("engine")
 @SpringBootTest
 @CamundaSpringProcessTest
 public class PullRequestProcessTest {
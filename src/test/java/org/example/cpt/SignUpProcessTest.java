@@ -10,6 +10,7 @@ import io.camunda.zeebe.spring.test.ZeebeSpringTest;
 import org.example.model.Account;
 import org.example.model.SignUpForm;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -19,6 +20,7 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.TimeoutException;
 
+@Tag("engine")
 @SpringBootTest
 @CamundaSpringProcessTest
 public class SignUpProcessTest {
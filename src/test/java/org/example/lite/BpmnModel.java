@@ -0,0 +1,412 @@
+package org.example.lite;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The subset of a BPMN model that the {@link LiteEngine} can execute: none and message start
+ * events, none end events, service and user tasks, exclusive, parallel and event-based gateways,
+ * message and timer catch events, interrupting error boundary events, call activities, embedded
+ * sub-processes and parallel multi-instance activities without an output collection. Of the Zeebe
+ * extensions, it reads task definitions, task headers, input and output mappings, called elements,
+ * message subscriptions and the input collection of a multi-instance activity. Zeebe properties are
+ * only read by the modeler and the connectors, and are ignored.
+ *
+ * <p>A malformed model fails with an {@link IllegalArgumentException}. A valid model with anything
+ * else, like a script task, a timer boundary event or an error end event, fails with an {@link
+ * UnsupportedOperationException}.
+ */
+final class BpmnModel {
+
+    private static final String BPMN_NAMESPACE = "http://www.omg.org/spec/BPMN/20100524/MODEL";
+    private static final String ZEEBE_NAMESPACE = "http://camunda.org/schema/zeebe/1.0";
+
+    private static final Set<String> SUPPORTED_EXTENSIONS = Set.of(
+            "taskDefinition", "taskHeaders", "ioMapping", "calledElement", "properties");
+
+    // the children of a scope that don't affect the execution
+    private static final Set<String> NON_EXECUTABLE_ELEMENTS = Set.of(
+            "extensionElements", "incoming", "outgoing", "multiInstanceLoopCharacteristics", "documentation",
+            "textAnnotation", "association", "group", "laneSet", "dataObject", "dataObjectReference",
+            "dataStoreReference");
+
+    static final String USER_TASK_JOB_TYPE = "io.camunda.zeebe:userTask";
+    static final int DEFAULT_JOB_RETRIES = 3;
+
+    private BpmnModel() {}
+
+    enum ElementType {
+        START_EVENT,
+        END_EVENT,
+        SERVICE_TASK,
+        USER_TASK,
+        EXCLUSIVE_GATEWAY,
+        PARALLEL_GATEWAY,
+        EVENT_BASED_GATEWAY,
+        INTERMEDIATE_CATCH_EVENT,
+        BOUNDARY_EVENT,
+        CALL_ACTIVITY,
+        SUB_PROCESS
+    }
+
+    record Process(String id, Scope scope) {}
+
+    /** The elements of a process or an embedded sub-process. */
+    static final class Scope {
+
+        final Map<String, FlowElement> elements = new LinkedHashMap<>();
+        final List<FlowElement> startEvents = new ArrayList<>();
+    }
+
+    static final class FlowElement {
+
+        final String id;
+        final ElementType type;
+        final List<SequenceFlow> outgoing = new ArrayList<>();
+        int incomingCount;
+
+        String jobType;
+        int jobRetries = DEFAULT_JOB_RETRIES;
+        final Map<String, String> taskHeaders = new LinkedHashMap<>();
+        final List<Mapping> inputMappings = new ArrayList<>();
+        final List<Mapping> outputMappings = new ArrayList<>();
+        String messageName;
+        String correlationKeyExpression;
+        Duration timerDuration;
+        String calledProcessId;
+        boolean propagateAllChildVariables = true;
+        String defaultFlowId;
+        String attachedToId;
+        boolean errorEvent;
+        String errorCode;
+        String inputCollection;
+        String inputElement;
+        Scope subProcessScope;
+        final List<FlowElement> boundaryEvents = new ArrayList<>();
+
+        FlowElement(final String id, final ElementType type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        boolean isMultiInstance() {
+            return inputCollection != null;
+        }
+
+        @Override
+        public String toString() {
+            return type + "[" + id + "]";
+        }
+    }
+
+    record SequenceFlow(String id, FlowElement target, String conditionExpression) {}
+
+    /** An input or output mapping, the target may be a path like {@code to.email}. */
+    record Mapping(String source, String target) {}
+
+    static List<Process> parse(final InputStream resource) {
+        final Document document;
+        try {
+            final var factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            document = factory.newDocumentBuilder().parse(resource);
+        } catch (final Exception e) {
+            throw new IllegalArgumentException("Failed to parse BPMN resource", e);
+        }
+
+        final Element definitions = document.getDocumentElement();
+        final Map<String, Element> messages = new HashMap<>();
+        final Map<String, String> errorCodes = new HashMap<>();
+        for (final Element child : children(definitions)) {
+            switch (child.getLocalName()) {
+                case "message" -> messages.put(child.getAttribute("id"), child);
+                case "error" -> errorCodes.put(child.getAttribute("id"), child.getAttribute("errorCode"));
+                default -> {
+                    // other root elements are not relevant for the execution
+                }
+            }
+        }
+
+        final List<Process> processes = new ArrayList<>();
+        for (final Element child : children(definitions)) {
+            if (child.getLocalName().equals("process")
+                    && !"false".equals(child.getAttribute("isExecutable"))) {
+                processes.add(new Process(child.getAttribute("id"), parseScope(child, messages, errorCodes)));
+            }
+        }
+        return processes;
+    }
+
+    private static Scope parseScope(
+            final Element scopeElement, final Map<String, Element> messages, final Map<String, String> errorCodes) {
+        final Scope scope = new Scope();
+        final List<Element> sequenceFlows = new ArrayList<>();
+
+        for (final Element child : children(scopeElement)) {
+            final ElementType type = elementType(child);
+            if (type != null) {
+                final FlowElement element = parseElement(child, type, messages, errorCodes);
+                scope.elements.put(element.id, element);
+
+                if (type == ElementType.START_EVENT) {
+                    scope.startEvents.add(element);
+                }
+                if (type == ElementType.SUB_PROCESS) {
+                    element.subProcessScope = parseScope(child, messages, errorCodes);
+                }
+            } else if (child.getLocalName().equals("sequenceFlow")) {
+                sequenceFlows.add(child);
+            } else if (BPMN_NAMESPACE.equals(child.getNamespaceURI())
+                    && !NON_EXECUTABLE_ELEMENTS.contains(child.getLocalName())) {
+                throw new UnsupportedOperationException("Unsupported BPMN element '%s': %s"
+                        .formatted(child.getLocalName(), child.getAttribute("id")));
+            }
+        }
+
+        for (final Element flow : sequenceFlows) {
+            final FlowElement source = scope.elements.get(flow.getAttribute("sourceRef"));
+            final FlowElement target = scope.elements.get(flow.getAttribute("targetRef"));
+            if (source == null || target == null) {
+                throw new IllegalArgumentException("Expected sequence flow '%s' to connect elements of its scope"
+                        .formatted(flow.getAttribute("id")));
+            }
+            final Element condition = firstChild(flow, BPMN_NAMESPACE, "conditionExpression");
+            if (condition != null && source.type != ElementType.EXCLUSIVE_GATEWAY) {
+                throw new UnsupportedOperationException(
+                        "Only the sequence flows of an exclusive gateway can have a condition: " + flow.getAttribute("id"));
+            }
+
+            source.outgoing.add(new SequenceFlow(
+                    flow.getAttribute("id"), target, condition == null ? null : condition.getTextContent().trim()));
+            target.incomingCount += 1;
+        }
+
+        for (final FlowElement element : scope.elements.values()) {
+            if (element.attachedToId != null) {
+                scope.elements.get(element.attachedToId).boundaryEvents.add(element);
+            }
+        }
+        return scope;
+    }
+
+    private static FlowElement parseElement(
+            final Element xml,
+            final ElementType type,
+            final Map<String, Element> messages,
+            final Map<String, String> errorCodes) {
+        final FlowElement element = new FlowElement(xml.getAttribute("id"), type);
+
+        if (xml.hasAttribute("default")) {
+            element.defaultFlowId = xml.getAttribute("default");
+        }
+        if (xml.hasAttribute("attachedToRef")) {
+            element.attachedToId = xml.getAttribute("attachedToRef");
+        }
+
+        checkEventDefinitions(xml, element);
+        checkExtensions(xml, element);
+        if (type == ElementType.BOUNDARY_EVENT && "false".equals(xml.getAttribute("cancelActivity"))) {
+            throw new UnsupportedOperationException("Non-interrupting boundary events are not supported: " + element.id);
+        }
+        if (type == ElementType.SUB_PROCESS && "true".equals(xml.getAttribute("triggeredByEvent"))) {
+            throw new UnsupportedOperationException("Event sub-processes are not supported: " + element.id);
+        }
+
+        final Element taskDefinition = extension(xml, "taskDefinition");
+        if (taskDefinition != null) {
+            element.jobType = taskDefinition.getAttribute("type");
+            if (taskDefinition.hasAttribute("retries")) {
+                element.jobRetries = parseRetries(taskDefinition.getAttribute("retries"), element);
+            }
+        } else if (type == ElementType.USER_TASK) {
+            element.jobType = USER_TASK_JOB_TYPE;
+        }
+
+        final Element taskHeaders = extension(xml, "taskHeaders");
+        if (taskHeaders != null) {
+            for (final Element header : children(taskHeaders)) {
+                element.taskHeaders.put(header.getAttribute("key"), header.getAttribute("value"));
+            }
+        }
+
+        final Element ioMapping = extension(xml, "ioMapping");
+        if (ioMapping != null) {
+            for (final Element mapping : children(ioMapping)) {
+                final var parsed = new Mapping(mapping.getAttribute("source"), mapping.getAttribute("target"));
+                switch (mapping.getLocalName()) {
+                    case "input" -> element.inputMappings.add(parsed);
+                    case "output" -> element.outputMappings.add(parsed);
+                    default -> throw new IllegalArgumentException(
+                            "Unexpected mapping '%s' of element: %s".formatted(mapping.getLocalName(), element.id));
+                }
+            }
+        }
+
+        final Element messageDefinition = firstChild(xml, BPMN_NAMESPACE, "messageEventDefinition");
+        if (messageDefinition != null) {
+            final Element message = messages.get(messageDefinition.getAttribute("messageRef"));
+            element.messageName = message.getAttribute("name");
+
+            final Element subscription = extension(message, "subscription");
+            if (subscription != null) {
+                element.correlationKeyExpression = subscription.getAttribute("correlationKey");
+            }
+        }
+
+        final Element timerDefinition = firstChild(xml, BPMN_NAMESPACE, "timerEventDefinition");
+        if (timerDefinition != null) {
+            final Element timeDuration = firstChild(timerDefinition, BPMN_NAMESPACE, "timeDuration");
+            if (timeDuration == null) {
+                throw new UnsupportedOperationException(
+                        "Only timer events with a duration are supported: " + element.id);
+            }
+            try {
+                element.timerDuration = Duration.parse(timeDuration.getTextContent().trim());
+            } catch (final DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid timer duration of element: " + element.id, e);
+            }
+        }
+
+        final Element errorDefinition = firstChild(xml, BPMN_NAMESPACE, "errorEventDefinition");
+        if (errorDefinition != null) {
+            element.errorEvent = true;
+            // an error event without an error reference catches all errors
+            element.errorCode = errorCodes.get(errorDefinition.getAttribute("errorRef"));
+        }
+
+        final Element calledElement = extension(xml, "calledElement");
+        if (calledElement != null) {
+            element.calledProcessId = calledElement.getAttribute("processId");
+            element.propagateAllChildVariables =
+                    !"false".equals(calledElement.getAttribute("propagateAllChildVariables"));
+        }
+
+        final Element multiInstance = firstChild(xml, BPMN_NAMESPACE, "multiInstanceLoopCharacteristics");
+        if (multiInstance != null) {
+            if ("true".equals(multiInstance.getAttribute("isSequential"))) {
+                throw new UnsupportedOperationException(
+                        "Only parallel multi-instance activities are supported: " + element.id);
+            }
+            if (firstChild(multiInstance, BPMN_NAMESPACE, "completionCondition") != null) {
+                throw new UnsupportedOperationException(
+                        "Multi-instance activities with a completion condition are not supported: " + element.id);
+            }
+            final Element loopCharacteristics = extension(multiInstance, "loopCharacteristics");
+            if (!loopCharacteristics.getAttribute("outputCollection").isEmpty()) {
+                throw new UnsupportedOperationException(
+                        "Multi-instance activities with an output collection are not supported: " + element.id);
+            }
+            element.inputCollection = loopCharacteristics.getAttribute("inputCollection");
+            element.inputElement = loopCharacteristics.getAttribute("inputElement");
+        }
+
+        return element;
+    }
+
+    private static void checkEventDefinitions(final Element xml, final FlowElement element) {
+        final Set<String> supportedDefinitions = switch (element.type) {
+            case START_EVENT -> Set.of("messageEventDefinition");
+            case INTERMEDIATE_CATCH_EVENT -> Set.of("messageEventDefinition", "timerEventDefinition");
+            case BOUNDARY_EVENT -> Set.of("errorEventDefinition");
+            default -> Set.of();
+        };
+
+        final List<String> definitions = new ArrayList<>();
+        for (final Element child : children(xml)) {
+            if (BPMN_NAMESPACE.equals(child.getNamespaceURI()) && child.getLocalName().endsWith("EventDefinition")) {
+                definitions.add(child.getLocalName());
+            }
+        }
+        for (final String definition : definitions) {
+            if (!supportedDefinitions.contains(definition)) {
+                throw new UnsupportedOperationException("Unsupported event definition '%s' of %s"
+                        .formatted(definition, element));
+            }
+        }
+        final boolean isCatchEvent =
+                element.type == ElementType.INTERMEDIATE_CATCH_EVENT || element.type == ElementType.BOUNDARY_EVENT;
+        if (isCatchEvent && definitions.size() != 1) {
+            throw new UnsupportedOperationException("Expected exactly one event definition of " + element);
+        }
+    }
+
+    private static void checkExtensions(final Element xml, final FlowElement element) {
+        final Element extensionElements = firstChild(xml, BPMN_NAMESPACE, "extensionElements");
+        if (extensionElements == null) {
+            return;
+        }
+        for (final Element extension : children(extensionElements)) {
+            if (ZEEBE_NAMESPACE.equals(extension.getNamespaceURI())
+                    && !SUPPORTED_EXTENSIONS.contains(extension.getLocalName())) {
+                throw new UnsupportedOperationException("Unsupported extension 'zeebe:%s' of %s"
+                        .formatted(extension.getLocalName(), element));
+            }
+        }
+    }
+
+    private static int parseRetries(final String retries, final FlowElement element) {
+        try {
+            return Integer.parseInt(retries.trim());
+        } catch (final NumberFormatException e) {
+            throw new UnsupportedOperationException("Only static job retries are supported: " + element.id, e);
+        }
+    }
+
+    private static ElementType elementType(final Element xml) {
+        if (!BPMN_NAMESPACE.equals(xml.getNamespaceURI())) {
+            return null;
+        }
+        return switch (xml.getLocalName()) {
+            case "startEvent" -> ElementType.START_EVENT;
+            case "endEvent" -> ElementType.END_EVENT;
+            case "serviceTask" -> ElementType.SERVICE_TASK;
+            case "userTask" -> ElementType.USER_TASK;
+            case "exclusiveGateway" -> ElementType.EXCLUSIVE_GATEWAY;
+            case "parallelGateway" -> ElementType.PARALLEL_GATEWAY;
+            case "eventBasedGateway" -> ElementType.EVENT_BASED_GATEWAY;
+            case "intermediateCatchEvent" -> ElementType.INTERMEDIATE_CATCH_EVENT;
+            case "boundaryEvent" -> ElementType.BOUNDARY_EVENT;
+            case "callActivity" -> ElementType.CALL_ACTIVITY;
+            case "subProcess" -> ElementType.SUB_PROCESS;
+            default -> null;
+        };
+    }
+
+    private static List<Element> children(final Element parent) {
+        final List<Element> children = new ArrayList<>();
+        final NodeList nodes = parent.getChildNodes();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            if (nodes.item(i).getNodeType() == Node.ELEMENT_NODE) {
+                children.add((Element) nodes.item(i));
+            }
+        }
+        return children;
+    }
+
+    private static Element firstChild(final Element parent, final String namespace, final String localName) {
+        for (final Element child : children(parent)) {
+            if (namespace.equals(child.getNamespaceURI()) && localName.equals(child.getLocalName())) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private static Element extension(final Element parent, final String localName) {
+        final Element extensionElements = firstChild(parent, BPMN_NAMESPACE, "extensionElements");
+        return extensionElements == null ? null : firstChild(extensionElements, ZEEBE_NAMESPACE, localName);
+    }
+}
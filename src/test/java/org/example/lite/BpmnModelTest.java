@@ -0,0 +1,91 @@
+package org.example.lite;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BpmnModelTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // a timer boundary event
+            """
+            <bpmn:serviceTask id="task"><bpmn:extensionElements><zeebe:taskDefinition type="test" /></bpmn:extensionElements></bpmn:serviceTask>
+            <bpmn:boundaryEvent id="timer" attachedToRef="task"><bpmn:timerEventDefinition><bpmn:timeDuration>PT1H</bpmn:timeDuration></bpmn:timerEventDefinition></bpmn:boundaryEvent>
+            """,
+            // a non-interrupting error boundary event
+            """
+            <bpmn:serviceTask id="task"><bpmn:extensionElements><zeebe:taskDefinition type="test" /></bpmn:extensionElements></bpmn:serviceTask>
+            <bpmn:boundaryEvent id="error" attachedToRef="task" cancelActivity="false"><bpmn:errorEventDefinition /></bpmn:boundaryEvent>
+            """,
+            // an error end event
+            """
+            <bpmn:endEvent id="end"><bpmn:errorEventDefinition /></bpmn:endEvent>
+            """,
+            // a terminate end event
+            """
+            <bpmn:endEvent id="end"><bpmn:terminateEventDefinition /></bpmn:endEvent>
+            """,
+            // a timer start event
+            """
+            <bpmn:startEvent id="timer-start"><bpmn:timerEventDefinition><bpmn:timeDuration>PT1H</bpmn:timeDuration></bpmn:timerEventDefinition></bpmn:startEvent>
+            """,
+            // a multi-instance activity with an output collection
+            """
+            <bpmn:serviceTask id="task">
+              <bpmn:extensionElements><zeebe:taskDefinition type="test" /></bpmn:extensionElements>
+              <bpmn:multiInstanceLoopCharacteristics><bpmn:extensionElements>
+                <zeebe:loopCharacteristics inputCollection="=items" inputElement="item" outputCollection="results" outputElement="=result" />
+              </bpmn:extensionElements></bpmn:multiInstanceLoopCharacteristics>
+            </bpmn:serviceTask>
+            """,
+            // an unknown extension, e.g. an execution listener
+            """
+            <bpmn:serviceTask id="task"><bpmn:extensionElements>
+              <zeebe:taskDefinition type="test" />
+              <zeebe:executionListeners><zeebe:executionListener eventType="start" type="listener" /></zeebe:executionListeners>
+            </bpmn:extensionElements></bpmn:serviceTask>
+            """,
+            // a condition on the sequence flow of a task
+            """
+            <bpmn:serviceTask id="task"><bpmn:extensionElements><zeebe:taskDefinition type="test" /></bpmn:extensionElements></bpmn:serviceTask>
+            <bpmn:endEvent id="end" />
+            <bpmn:sequenceFlow id="flow" sourceRef="task" targetRef="end"><bpmn:conditionExpression>=true</bpmn:conditionExpression></bpmn:sequenceFlow>
+            """
+    })
+    void shouldRejectUnsupportedConstruct(final String elements) {
+        assertThatThrownBy(() -> parse(elements)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // a sequence flow to an element of another scope
+            """
+            <bpmn:startEvent id="start" />
+            <bpmn:sequenceFlow id="flow" sourceRef="start" targetRef="missing" />
+            """,
+            // an invalid timer duration
+            """
+            <bpmn:intermediateCatchEvent id="timer"><bpmn:timerEventDefinition><bpmn:timeDuration>one hour</bpmn:timeDuration></bpmn:timerEventDefinition></bpmn:intermediateCatchEvent>
+            """
+    })
+    void shouldRejectMalformedModel(final String elements) {
+        assertThatThrownBy(() -> parse(elements)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void parse(final String elements) {
+        final String model = """
+                <bpmn:definitions xmlns:bpmn="http://www.omg.org/spec/BPMN/20100524/MODEL"
+                                  xmlns:zeebe="http://camunda.org/schema/zeebe/1.0" id="definitions">
+                  <bpmn:process id="process" isExecutable="true">
+                  %s
+                  </bpmn:process>
+                </bpmn:definitions>
+                """.formatted(elements);
+        BpmnModel.parse(new ByteArrayInputStream(model.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,262 @@
+package org.example.lite;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Evaluates the small subset of FEEL that the processes use: literals, lists, variable paths (e.g.
+ * {@code account.id}), the addition of numbers and the concatenation of strings with {@code +},
+ * comparisons with {@code =} and {@code !=}, {@code and}, {@code or} and {@code not(..)}. A value
+ * that doesn't start with {@code =} is a static string.
+ *
+ * <p>A malformed expression fails with an {@link IllegalArgumentException}. A valid FEEL construct
+ * outside the subset, like a function call, fails with an {@link UnsupportedOperationException}.
+ */
+final class FeelExpression {
+
+    private static final String UNSUPPORTED_OPERATORS = "-*/<>";
+
+    private final String expression;
+    private final Function<String, Object> variables;
+    private int position;
+
+    private FeelExpression(final String expression, final Function<String, Object> variables) {
+        this.expression = expression;
+        this.variables = variables;
+    }
+
+    static Object evaluate(final String expression, final Function<String, Object> variables) {
+        final String trimmed = expression.trim();
+        if (!trimmed.startsWith("=")) {
+            return trimmed;
+        }
+
+        final FeelExpression parser = new FeelExpression(trimmed.substring(1), variables);
+        final Object result = parser.parseDisjunction();
+        parser.skipWhitespace();
+        if (parser.position < parser.expression.length()) {
+            throw UNSUPPORTED_OPERATORS.indexOf(parser.expression.charAt(parser.position)) >= 0
+                    ? parser.unsupported("operator")
+                    : parser.malformed();
+        }
+        return result;
+    }
+
+    private Object parseDisjunction() {
+        Object left = parseConjunction();
+        while (consumeKeyword("or")) {
+            final Object right = parseConjunction();
+            left = Boolean.TRUE.equals(left) || Boolean.TRUE.equals(right);
+        }
+        return left;
+    }
+
+    private Object parseConjunction() {
+        Object left = parseComparison();
+        while (consumeKeyword("and")) {
+            final Object right = parseComparison();
+            left = Boolean.TRUE.equals(left) && Boolean.TRUE.equals(right);
+        }
+        return left;
+    }
+
+    private Object parseComparison() {
+        final Object left = parseAddition();
+        if (consume("!=")) {
+            return !valueEquals(left, parseAddition());
+        }
+        if (consume("=")) {
+            return valueEquals(left, parseAddition());
+        }
+        return left;
+    }
+
+    private Object parseAddition() {
+        Object left = parsePrimary();
+        while (consume("+")) {
+            final Object right = parsePrimary();
+            if (left instanceof String leftString && right instanceof String rightString) {
+                left = leftString + rightString;
+            } else if (left instanceof Number leftNumber && right instanceof Number rightNumber) {
+                left = new BigDecimal(leftNumber.toString()).add(new BigDecimal(rightNumber.toString()));
+            } else {
+                // as in FEEL, the sum of other values is null
+                left = null;
+            }
+        }
+        return left;
+    }
+
+    private Object parsePrimary() {
+        skipWhitespace();
+        if (position >= expression.length()) {
+            throw malformed();
+        }
+
+        final char next = expression.charAt(position);
+        if (next == '"') {
+            return parseString();
+        }
+        if (next == '[') {
+            return parseList();
+        }
+        if (next == '(') {
+            position += 1;
+            final Object value = parseDisjunction();
+            expect(")");
+            return value;
+        }
+        if (Character.isDigit(next) || next == '-') {
+            return parseNumber();
+        }
+        if (next == '{') {
+            throw unsupported("context");
+        }
+
+        final String name = parseName();
+        switch (name) {
+            case "true":
+                return true;
+            case "false":
+                return false;
+            case "null":
+                return null;
+            case "not":
+                expect("(");
+                final Object value = parseDisjunction();
+                expect(")");
+                return value instanceof Boolean bool ? !bool : null;
+            default:
+                if (consume("(")) {
+                    throw unsupported("function");
+                }
+                return parsePath(variables.apply(name));
+        }
+    }
+
+    private Object parsePath(final Object variable) {
+        Object value = variable;
+        while (consume(".")) {
+            final String property = parseName();
+            value = value instanceof Map<?, ?> context ? context.get(property) : null;
+        }
+        return value;
+    }
+
+    private String parseString() {
+        final StringBuilder value = new StringBuilder();
+        position += 1;
+        while (position < expression.length()) {
+            final char next = expression.charAt(position);
+            position += 1;
+            if (next == '"') {
+                return value.toString();
+            }
+            if (next != '\\') {
+                value.append(next);
+                continue;
+            }
+            if (position >= expression.length()) {
+                throw malformed();
+            }
+            final char escaped = expression.charAt(position);
+            switch (escaped) {
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case '"', '\\' -> value.append(escaped);
+                default -> throw unsupported("escape sequence");
+            }
+            position += 1;
+        }
+        throw malformed();
+    }
+
+    private List<Object> parseList() {
+        expect("[");
+        final List<Object> list = new ArrayList<>();
+        if (consume("]")) {
+            return list;
+        }
+        do {
+            list.add(parseDisjunction());
+        } while (consume(","));
+        expect("]");
+        return list;
+    }
+
+    private BigDecimal parseNumber() {
+        final int start = position;
+        position += 1;
+        while (position < expression.length()
+                && (Character.isDigit(expression.charAt(position)) || expression.charAt(position) == '.')) {
+            position += 1;
+        }
+        return new BigDecimal(expression.substring(start, position));
+    }
+
+    private String parseName() {
+        skipWhitespace();
+        final int start = position;
+        while (position < expression.length() && Character.isJavaIdentifierPart(expression.charAt(position))) {
+            position += 1;
+        }
+        if (start == position) {
+            throw malformed();
+        }
+        return expression.substring(start, position);
+    }
+
+    private static boolean valueEquals(final Object left, final Object right) {
+        if (left instanceof Number leftNumber && right instanceof Number rightNumber) {
+            return new BigDecimal(leftNumber.toString()).compareTo(new BigDecimal(rightNumber.toString())) == 0;
+        }
+        return Objects.equals(left, right);
+    }
+
+    private boolean consumeKeyword(final String keyword) {
+        skipWhitespace();
+        final int end = position + keyword.length();
+        if (expression.startsWith(keyword, position)
+                && (end == expression.length() || !Character.isJavaIdentifierPart(expression.charAt(end)))) {
+            position = end;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean consume(final String token) {
+        skipWhitespace();
+        if (expression.startsWith(token, position)) {
+            position += token.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(final String token) {
+        if (!consume(token)) {
+            throw malformed();
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+            position += 1;
+        }
+    }
+
+    private IllegalArgumentException malformed() {
+        return new IllegalArgumentException(
+                "Failed to parse FEEL expression '%s' at position %d".formatted(expression, position));
+    }
+
+    private UnsupportedOperationException unsupported(final String construct) {
+        return new UnsupportedOperationException(
+                "Unsupported FEEL %s in expression '%s' at position %d".formatted(construct, expression, position));
+    }
+}
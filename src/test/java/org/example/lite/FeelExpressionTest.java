@@ -0,0 +1,54 @@
+package org.example.lite;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FeelExpressionTest {
+
+    private static final Map<String, Object> VARIABLES = Map.of(
+            "account", Map.of("id", "account-id-0001", "subscribeToNewsletter", true),
+            "reviewResult", "approved");
+
+    @Test
+    void shouldEvaluateSupportedExpressions() {
+        assertThat(evaluate("=account.id")).isEqualTo("account-id-0001");
+        assertThat(evaluate("=account.subscribeToNewsletter = true and reviewResult != \"rejected\"")).isEqualTo(true);
+        assertThat(evaluate("=not(account.missing = null)")).isEqualTo(false);
+        assertThat(evaluate("=[1, 2]")).asList().containsExactly(BigDecimal.ONE, BigDecimal.valueOf(2));
+        assertThat(evaluate("=\"Hi, \" + account.id + \"!\\n\\\"ok\\\"\"")).isEqualTo("Hi, account-id-0001!\n\"ok\"");
+        assertThat(evaluate("=1 + 2 = 3")).isEqualTo(true);
+        assertThat(evaluate("=account.missing + \"!\"")).isNull();
+        assertThat(evaluate("static value")).isEqualTo("static value");
+    }
+
+    @Test
+    void shouldRejectMalformedExpression() {
+        assertThatThrownBy(() -> evaluate("=account.id = \"unterminated"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Failed to parse");
+        assertThatThrownBy(() -> evaluate("=(account.id"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectUnsupportedConstructs() {
+        assertThatThrownBy(() -> evaluate("=count(account)"))
+                .isInstanceOf(UnsupportedOperationException.class)
+                .hasMessageContaining("function");
+        assertThatThrownBy(() -> evaluate("=1 * 2"))
+                .isInstanceOf(UnsupportedOperationException.class)
+                .hasMessageContaining("operator");
+        assertThatThrownBy(() -> evaluate("={id: 1}"))
+                .isInstanceOf(UnsupportedOperationException.class)
+                .hasMessageContaining("context");
+    }
+
+    private static Object evaluate(final String expression) {
+        return FeelExpression.evaluate(expression, VARIABLES::get);
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.lite;
+
+import org.assertj.core.api.AbstractAssert;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Assertions on the process instances of a {@link LiteEngine}, named like the ones of {@code
+ * CamundaAssert}. The engine processes all commands synchronously, so the assertions don't wait.
+ */
+public class LiteAssert extends AbstractAssert<LiteAssert, LiteEngine.ProcessInstance> {
+
+    private LiteAssert(final LiteEngine.ProcessInstance processInstance) {
+        super(processInstance, LiteAssert.class);
+    }
+
+    public static LiteAssert assertThat(final LiteClient.ProcessInstanceEvent processInstanceEvent) {
+        return assertThat(processInstanceEvent.engine().processInstance(processInstanceEvent.getProcessInstanceKey()));
+    }
+
+    public static LiteAssert assertThat(final LiteEngine.ProcessInstance processInstance) {
+        return new LiteAssert(processInstance);
+    }
+
+    public LiteAssert isActive() {
+        return hasState(LiteEngine.State.ACTIVE);
+    }
+
+    public LiteAssert isCompleted() {
+        return hasState(LiteEngine.State.COMPLETED);
+    }
+
+    public LiteAssert isTerminated() {
+        return hasState(LiteEngine.State.TERMINATED);
+    }
+
+    public LiteAssert hasActiveElements(final String... elementIds) {
+        final List<String> activeElements = actual.getActiveElements();
+        for (final String elementId : elementIds) {
+            if (!activeElements.contains(elementId)) {
+                failWithMessage("%s should have active element '%s' but the active elements are %s",
+                        actual, elementId, activeElements);
+            }
+        }
+        return this;
+    }
+
+    public LiteAssert hasCompletedElements(final String... elementIds) {
+        final List<String> completedElements = elementsWithState(LiteEngine.State.COMPLETED);
+        for (final String elementId : elementIds) {
+            if (!completedElements.contains(elementId)) {
+                failWithMessage("%s should have completed element '%s' but the completed elements are %s",
+                        actual, elementId, completedElements);
+            }
+        }
+        return this;
+    }
+
+    public LiteAssert hasCompletedElement(final String elementId, final int times) {
+        final long completions = elementsWithState(LiteEngine.State.COMPLETED).stream()
+                .filter(elementId::equals)
+                .count();
+        if (completions != times) {
+            failWithMessage("%s should have completed element '%s' %d times but it was completed %d times",
+                    actual, elementId, times, completions);
+        }
+        return this;
+    }
+
+    public LiteAssert hasCompletedElementsInOrder(final String... elementIds) {
+        final List<String> completedElements = elementsWithState(LiteEngine.State.COMPLETED);
+
+        int next = 0;
+        for (final String completedElement : completedElements) {
+            if (next < elementIds.length && elementIds[next].equals(completedElement)) {
+                next += 1;
+            }
+        }
+        if (next < elementIds.length) {
+            failWithMessage("%s should have completed elements %s in order but the completed elements are %s",
+                    actual, Arrays.toString(elementIds), completedElements);
+        }
+        return this;
+    }
+
+    public LiteAssert hasNotActivatedElements(final String... elementIds) {
+        final List<String> activatedElements = elementsWithState(LiteEngine.State.ACTIVE);
+        for (final String elementId : elementIds) {
+            if (activatedElements.contains(elementId)) {
+                failWithMessage("%s should not have activated element '%s'", actual, elementId);
+            }
+        }
+        return this;
+    }
+
+    public LiteAssert hasTerminatedElements(final String... elementIds) {
+        final List<String> terminatedElements = elementsWithState(LiteEngine.State.TERMINATED);
+        for (final String elementId : elementIds) {
+            if (!terminatedElements.contains(elementId)) {
+                failWithMessage("%s should have terminated element '%s' but the terminated elements are %s",
+                        actual, elementId, terminatedElements);
+            }
+        }
+        return this;
+    }
+
+    public LiteAssert hasVariable(final String name, final Object value) {
+        final Object actualValue = actual.getVariables().get(name);
+        if (!actual.getVariables().containsKey(name) || !Objects.equals(actualValue, LiteEngine.normalize(value))) {
+            failWithMessage("%s should have variable '%s' with value '%s' but was '%s'", actual, name, value, actualValue);
+        }
+        return this;
+    }
+
+    public LiteAssert hasNoVariable(final String name) {
+        if (actual.getVariables().containsKey(name)) {
+            failWithMessage("%s should not have variable '%s' but was '%s'", actual, name, actual.getVariables().get(name));
+        }
+        return this;
+    }
+
+    private LiteAssert hasState(final LiteEngine.State state) {
+        isNotNull();
+        if (actual.getState() != state) {
+            failWithMessage("%s should be %s but was %s", actual, state, actual.getState());
+        }
+        return this;
+    }
+
+    private List<String> elementsWithState(final LiteEngine.State state) {
+        return actual.getHistory().stream()
+                .filter(record -> record.state() == state)
+                .map(LiteEngine.ElementRecord::elementId)
+                .toList();
+    }
+}
@@ -0,0 +1,299 @@
+package org.example.lite;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends commands to a {@link LiteEngine} with the same fluent API as the {@code CamundaClient}, so
+ * that a process test can be moved between both with only a few changes. Like the real client, each
+ * command is sent with {@code send()} and returns a future, but the future is already completed
+ * because the engine processes the command synchronously.
+ */
+public class LiteClient {
+
+    private static final Duration DEFAULT_MESSAGE_TIME_TO_LIVE = Duration.ofHours(1);
+
+    private final LiteEngine engine;
+
+    public LiteClient(final LiteEngine engine) {
+        this.engine = engine;
+    }
+
+    public DeployResourceCommand newDeployResourceCommand() {
+        return new DeployResourceCommand();
+    }
+
+    public CreateProcessInstanceCommand newCreateInstanceCommand() {
+        return new CreateProcessInstanceCommand();
+    }
+
+    public PublishMessageCommand newPublishMessageCommand() {
+        return new PublishMessageCommand();
+    }
+
+    public CorrelateMessageCommand newCorrelateMessageCommand() {
+        return new CorrelateMessageCommand();
+    }
+
+    public ActivateJobsCommand newActivateJobsCommand() {
+        return new ActivateJobsCommand();
+    }
+
+    public CompleteJobCommand newCompleteCommand(final LiteJob job) {
+        return newCompleteCommand(job.getKey());
+    }
+
+    public CompleteJobCommand newCompleteCommand(final long jobKey) {
+        return new CompleteJobCommand(jobKey);
+    }
+
+    public FailJobCommand newFailCommand(final LiteJob job) {
+        return new FailJobCommand(job.getKey());
+    }
+
+    public ThrowErrorCommand newThrowErrorCommand(final LiteJob job) {
+        return new ThrowErrorCommand(job.getKey());
+    }
+
+    public record DeploymentEvent(List<String> processIds) {}
+
+    public record ProcessInstanceEvent(LiteEngine engine, long processInstanceKey, String bpmnProcessId) {
+
+        public long getProcessInstanceKey() {
+            return processInstanceKey;
+        }
+
+        public String getBpmnProcessId() {
+            return bpmnProcessId;
+        }
+    }
+
+    public record CorrelateMessageResponse(long processInstanceKey) {
+
+        public long getProcessInstanceKey() {
+            return processInstanceKey;
+        }
+    }
+
+    public record ActivateJobsResponse(List<LiteJob> jobs) {
+
+        public List<LiteJob> getJobs() {
+            return jobs;
+        }
+    }
+
+    public final class DeployResourceCommand {
+
+        private final List<String> resources = new ArrayList<>();
+
+        public DeployResourceCommand addResourceFromClasspath(final String classpathResource) {
+            resources.add(classpathResource);
+            return this;
+        }
+
+        public CompletableFuture<DeploymentEvent> send() {
+            return CompletableFuture.completedFuture(
+                    new DeploymentEvent(engine.deploy(resources.toArray(String[]::new))));
+        }
+    }
+
+    public final class CreateProcessInstanceCommand {
+
+        private final Map<String, Object> variables = new HashMap<>();
+        private String bpmnProcessId;
+
+        public CreateProcessInstanceCommand bpmnProcessId(final String bpmnProcessId) {
+            this.bpmnProcessId = bpmnProcessId;
+            return this;
+        }
+
+        /** The engine keeps only the latest version of a process. */
+        public CreateProcessInstanceCommand latestVersion() {
+            return this;
+        }
+
+        public CreateProcessInstanceCommand variable(final String name, final Object value) {
+            variables.put(name, value);
+            return this;
+        }
+
+        public CreateProcessInstanceCommand variables(final Map<String, Object> variables) {
+            this.variables.putAll(variables);
+            return this;
+        }
+
+        public CompletableFuture<ProcessInstanceEvent> send() {
+            final long processInstanceKey = engine.createProcessInstance(bpmnProcessId, variables);
+            return CompletableFuture.completedFuture(new ProcessInstanceEvent(engine, processInstanceKey, bpmnProcessId));
+        }
+    }
+
+    public final class PublishMessageCommand {
+
+        private final Map<String, Object> variables = new HashMap<>();
+        private String messageName;
+        private String correlationKey = "";
+        private Duration timeToLive = DEFAULT_MESSAGE_TIME_TO_LIVE;
+
+        public PublishMessageCommand messageName(final String messageName) {
+            this.messageName = messageName;
+            return this;
+        }
+
+        public PublishMessageCommand correlationKey(final String correlationKey) {
+            this.correlationKey = correlationKey;
+            return this;
+        }
+
+        public PublishMessageCommand variables(final Map<String, Object> variables) {
+            this.variables.putAll(variables);
+            return this;
+        }
+
+        public PublishMessageCommand timeToLive(final Duration timeToLive) {
+            this.timeToLive = timeToLive;
+            return this;
+        }
+
+        public CompletableFuture<Void> send() {
+            engine.publishMessage(messageName, correlationKey, variables, timeToLive);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    public final class CorrelateMessageCommand {
+
+        private final Map<String, Object> variables = new HashMap<>();
+        private String messageName;
+        private String correlationKey = "";
+
+        public CorrelateMessageCommand messageName(final String messageName) {
+            this.messageName = messageName;
+            return this;
+        }
+
+        public CorrelateMessageCommand correlationKey(final String correlationKey) {
+            this.correlationKey = correlationKey;
+            return this;
+        }
+
+        public CorrelateMessageCommand variables(final Map<String, Object> variables) {
+            this.variables.putAll(variables);
+            return this;
+        }
+
+        /** Fails like the real command if the message is not correlated to any process instance. */
+        public CompletableFuture<CorrelateMessageResponse> send() {
+            final List<Long> processInstanceKeys =
+                    engine.publishMessage(messageName, correlationKey, variables, Duration.ZERO);
+
+            if (processInstanceKeys.isEmpty()) {
+                return CompletableFuture.failedFuture(new IllegalStateException(
+                        "Expected to find subscription for message with name '%s' and correlation key '%s', but none was found"
+                                .formatted(messageName, correlationKey)));
+            }
+            return CompletableFuture.completedFuture(new CorrelateMessageResponse(processInstanceKeys.get(0)));
+        }
+    }
+
+    public final class ActivateJobsCommand {
+
+        private String jobType;
+        private int maxJobsToActivate = 32;
+
+        public ActivateJobsCommand jobType(final String jobType) {
+            this.jobType = jobType;
+            return this;
+        }
+
+        public ActivateJobsCommand maxJobsToActivate(final int maxJobsToActivate) {
+            this.maxJobsToActivate = maxJobsToActivate;
+            return this;
+        }
+
+        public CompletableFuture<ActivateJobsResponse> send() {
+            return CompletableFuture.completedFuture(new ActivateJobsResponse(engine.activateJobs(jobType, maxJobsToActivate)));
+        }
+    }
+
+    public final class CompleteJobCommand {
+
+        private final long jobKey;
+        private final Map<String, Object> variables = new HashMap<>();
+
+        private CompleteJobCommand(final long jobKey) {
+            this.jobKey = jobKey;
+        }
+
+        public CompleteJobCommand variable(final String name, final Object value) {
+            variables.put(name, value);
+            return this;
+        }
+
+        public CompleteJobCommand variables(final Map<String, Object> variables) {
+            this.variables.putAll(variables);
+            return this;
+        }
+
+        public CompletableFuture<Void> send() {
+            engine.completeJob(jobKey, variables);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    public final class FailJobCommand {
+
+        private final long jobKey;
+        private int retries;
+        private String errorMessage;
+
+        private FailJobCommand(final long jobKey) {
+            this.jobKey = jobKey;
+        }
+
+        public FailJobCommand retries(final int retries) {
+            this.retries = retries;
+            return this;
+        }
+
+        public FailJobCommand errorMessage(final String errorMessage) {
+            this.errorMessage = errorMessage;
+            return this;
+        }
+
+        public CompletableFuture<Void> send() {
+            engine.failJob(jobKey, retries, errorMessage);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    public final class ThrowErrorCommand {
+
+        private final long jobKey;
+        private final Map<String, Object> variables = new HashMap<>();
+        private String errorCode;
+
+        private ThrowErrorCommand(final long jobKey) {
+            this.jobKey = jobKey;
+        }
+
+        public ThrowErrorCommand errorCode(final String errorCode) {
+            this.errorCode = errorCode;
+            return this;
+        }
+
+        public ThrowErrorCommand variables(final Map<String, Object> variables) {
+            this.variables.putAll(variables);
+            return this;
+        }
+
+        public CompletableFuture<Void> send() {
+            engine.throwError(jobKey, errorCode, variables);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,829 @@
+package org.example.lite;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.lite.BpmnModel.ElementType;
+import org.example.lite.BpmnModel.FlowElement;
+import org.example.lite.BpmnModel.SequenceFlow;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A single-threaded, in-memory stand-in for the engine that executes the processes of this project
+ * synchronously. It has no broker, no exporter and no secondary storage, so a test starts in
+ * milliseconds instead of seconds.
+ *
+ * <p>Each command is processed completely before it returns, including the jobs of the registered
+ * job workers. The clock only moves with {@link #increaseTime(Duration)}. The engine supports the
+ * elements and extensions of {@link BpmnModel} and the expressions of {@link FeelExpression}. Any
+ * other construct fails on deployment or execution, so a test doesn't pass by accident on an
+ * unsupported model.
+ *
+ * <p>It doesn't replace the tests against the real engine (see {@code org.example.cpt}), because
+ * it only approximates the engine's behavior, e.g. a nested input mapping target doesn't merge
+ * with a variable of a parent scope, and jobs don't time out.
+ */
+public class LiteEngine {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Map<String, BpmnModel.Process> processes = new HashMap<>();
+    private final Map<Long, ProcessInstance> processInstances = new LinkedHashMap<>();
+    private final Map<Long, Job> jobs = new LinkedHashMap<>();
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private final List<Timer> timers = new ArrayList<>();
+    private final List<BufferedMessage> bufferedMessages = new ArrayList<>();
+    private final Map<String, JobWorker> jobWorkers = new LinkedHashMap<>();
+    private final List<String> incidents = new ArrayList<>();
+    private final List<TimerTrigger> timerTriggers = new ArrayList<>();
+
+    private final ArrayDeque<Runnable> agenda = new ArrayDeque<>();
+    private boolean processing;
+
+    private Instant currentTime = Instant.now();
+    private long nextKey = 1;
+
+    /** Handles the jobs of a job type, see {@link #registerJobWorker(String, JobWorker)}. */
+    @FunctionalInterface
+    public interface JobWorker {
+
+        void handle(LiteEngine engine, LiteJob job);
+    }
+
+    public enum State {
+        ACTIVE,
+        COMPLETED,
+        TERMINATED
+    }
+
+    public record ElementRecord(String elementId, State state) {}
+
+    public record TimerTrigger(long processInstanceKey, String elementId, Instant dueDate) {}
+
+    // --- commands
+
+    public synchronized List<String> deploy(final String... classpathResources) {
+        final List<String> processIds = new ArrayList<>();
+        for (final String resource : classpathResources) {
+            final String resourceName = resource.startsWith("/") ? resource.substring(1) : resource;
+
+            try (final InputStream stream = LiteEngine.class.getClassLoader().getResourceAsStream(resourceName)) {
+                if (stream == null) {
+                    throw new IllegalArgumentException("Resource not found: " + resource);
+                }
+                for (final BpmnModel.Process process : BpmnModel.parse(stream)) {
+                    processes.put(process.id(), process);
+                    processIds.add(process.id());
+                }
+            } catch (final IOException e) {
+                throw new IllegalArgumentException("Failed to read resource: " + resource, e);
+            }
+        }
+        return processIds;
+    }
+
+    public synchronized long createProcessInstance(final String processId, final Map<String, Object> variables) {
+        final BpmnModel.Process process = process(processId);
+        final FlowElement startEvent = process.scope().startEvents.stream()
+                .filter(event -> event.messageName == null && event.timerDuration == null)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Expected process '%s' to have a none start event".formatted(processId)));
+
+        final ProcessInstance processInstance = createProcessInstance(process, startEvent, variables, null);
+        process();
+        return processInstance.key;
+    }
+
+    /**
+     * Publishes a message. It is correlated to the matching message start events and to one
+     * matching subscription per process instance. If nothing matches, it is buffered until its
+     * time-to-live expires. Returns the keys of the process instances it was correlated to.
+     */
+    public synchronized List<Long> publishMessage(
+            final String messageName,
+            final String correlationKey,
+            final Map<String, Object> variables,
+            final Duration timeToLive) {
+        final List<Long> correlatedInstances = correlate(messageName, correlationKey, variables);
+
+        if (correlatedInstances.isEmpty() && timeToLive.compareTo(Duration.ZERO) > 0) {
+            bufferedMessages.add(new BufferedMessage(
+                    messageName, correlationKey, normalize(variables), currentTime.plus(timeToLive)));
+        }
+        process();
+        return correlatedInstances;
+    }
+
+    public synchronized List<LiteJob> activateJobs(final String jobType, final int maxJobsToActivate) {
+        final List<LiteJob> activatedJobs = new ArrayList<>();
+        for (final Job job : jobs.values()) {
+            if (activatedJobs.size() >= maxJobsToActivate) {
+                break;
+            }
+            if (job.type.equals(jobType) && !job.activated && job.retries > 0) {
+                job.activated = true;
+                activatedJobs.add(toLiteJob(job));
+            }
+        }
+        return activatedJobs;
+    }
+
+    public synchronized void completeJob(final long jobKey, final Map<String, Object> variables) {
+        final Job job = removeJob(jobKey);
+
+        setResultVariables(job.elementInstance, variables);
+        completeElement(job.elementInstance);
+        process();
+    }
+
+    public synchronized void failJob(final long jobKey, final int retries, final String errorMessage) {
+        final Job job = job(jobKey);
+        job.activated = false;
+        job.retries = retries;
+
+        if (retries <= 0) {
+            incidents.add("Job '%s' of element '%s' failed: %s".formatted(job.type, job.elementInstance.element.id, errorMessage));
+        }
+        process();
+    }
+
+    public synchronized void throwError(final long jobKey, final String errorCode, final Map<String, Object> variables) {
+        final Job job = removeJob(jobKey);
+
+        throwError(job.elementInstance, errorCode, variables);
+        process();
+    }
+
+    /**
+     * Advances the clock and triggers the due timers. Each timer is triggered like a separate command,
+     * so the commands of other threads can be processed between two timers.
+     */
+    public void increaseTime(final Duration duration) {
+        synchronized (this) {
+            currentTime = currentTime.plus(duration);
+            bufferedMessages.removeIf(message -> !message.expiresAt().isAfter(currentTime));
+        }
+
+        while (triggerDueTimer()) {
+            Thread.yield();
+        }
+    }
+
+    public synchronized Instant getCurrentTime() {
+        return currentTime;
+    }
+
+    /**
+     * Registers a job worker that handles all jobs of the type, including the jobs that are created
+     * while processing another command.
+     */
+    public synchronized void registerJobWorker(final String jobType, final JobWorker worker) {
+        jobWorkers.put(jobType, worker);
+        process();
+    }
+
+    // --- queries
+
+    public synchronized ProcessInstance processInstance(final long processInstanceKey) {
+        final ProcessInstance processInstance = processInstances.get(processInstanceKey);
+        if (processInstance == null) {
+            throw new IllegalArgumentException("No process instance found with key " + processInstanceKey);
+        }
+        return processInstance;
+    }
+
+    /** Returns the most recently created process instance of the process. */
+    public synchronized ProcessInstance latestProcessInstance(final String processId) {
+        final List<ProcessInstance> instances = processInstances.values().stream()
+                .filter(instance -> instance.processId.equals(processId))
+                .toList();
+        if (instances.isEmpty()) {
+            throw new IllegalArgumentException("No process instance found for process '%s'".formatted(processId));
+        }
+        return instances.get(instances.size() - 1);
+    }
+
+    public synchronized List<ProcessInstance> processInstances() {
+        return List.copyOf(processInstances.values());
+    }
+
+    /** Returns the triggered timer events in the order in which they were triggered. */
+    public synchronized List<TimerTrigger> timerTriggers() {
+        return List.copyOf(timerTriggers);
+    }
+
+    public synchronized List<String> incidents() {
+        return List.copyOf(incidents);
+    }
+
+    // --- execution
+
+    private void process() {
+        if (processing) {
+            // a job worker sends a command while another command is processed
+            return;
+        }
+
+        processing = true;
+        try {
+            do {
+                while (!agenda.isEmpty()) {
+                    agenda.poll().run();
+                }
+            } while (runJobWorkers());
+        } finally {
+            processing = false;
+        }
+    }
+
+    private boolean runJobWorkers() {
+        boolean handledJobs = false;
+        for (final Map.Entry<String, JobWorker> worker : List.copyOf(jobWorkers.entrySet())) {
+            for (final LiteJob job : activateJobs(worker.getKey(), Integer.MAX_VALUE)) {
+                worker.getValue().handle(this, job);
+                handledJobs = true;
+            }
+        }
+        return handledJobs;
+    }
+
+    private ProcessInstance createProcessInstance(
+            final BpmnModel.Process process,
+            final FlowElement startEvent,
+            final Map<String, Object> variables,
+            final ElementInstance callActivity) {
+        final long key = nextKey();
+        final ProcessInstance processInstance = new ProcessInstance(key, process.id(), callActivity);
+        final ElementInstance root = new ElementInstance(key, null, null, processInstance);
+        processInstance.root = root;
+
+        root.variables.putAll(normalize(variables));
+        processInstances.put(key, processInstance);
+        processInstance.history.add(new ElementRecord(process.id(), State.ACTIVE));
+
+        if (callActivity != null) {
+            callActivity.calledProcessInstance = processInstance;
+        }
+
+        activateElement(root, startEvent);
+        return processInstance;
+    }
+
+    private void activateElement(final ElementInstance scope, final FlowElement element) {
+        scope.pendingActivations += 1;
+        agenda.add(() -> {
+            scope.pendingActivations -= 1;
+            if (scope.state == State.ACTIVE) {
+                activate(scope, element);
+            }
+        });
+    }
+
+    private void activate(final ElementInstance scope, final FlowElement element) {
+        if (element.type == ElementType.PARALLEL_GATEWAY && element.incomingCount > 1) {
+            final int arrivedFlows = scope.joiningFlows.merge(element.id, 1, Integer::sum);
+            if (arrivedFlows < element.incomingCount) {
+                return;
+            }
+            scope.joiningFlows.remove(element.id);
+        }
+
+        final ElementInstance instance = createElementInstance(scope, element);
+
+        if (element.isMultiInstance()) {
+            activateMultiInstanceBody(instance);
+        } else {
+            enter(instance);
+        }
+    }
+
+    private void enter(final ElementInstance instance) {
+        final FlowElement element = instance.element;
+        applyInputMappings(instance);
+
+        switch (element.type) {
+            case START_EVENT, END_EVENT, EXCLUSIVE_GATEWAY, PARALLEL_GATEWAY, BOUNDARY_EVENT -> completeElement(instance);
+            case SERVICE_TASK, USER_TASK -> createJob(instance);
+            case INTERMEDIATE_CATCH_EVENT -> openTrigger(instance, element);
+            case EVENT_BASED_GATEWAY -> element.outgoing.forEach(flow -> openTrigger(instance, flow.target()));
+            case CALL_ACTIVITY -> {
+                final BpmnModel.Process calledProcess = process(element.calledProcessId);
+                final FlowElement startEvent = calledProcess.scope().startEvents.get(0);
+                createProcessInstance(calledProcess, startEvent, visibleVariables(instance), instance);
+            }
+            case SUB_PROCESS ->
+                    element.subProcessScope.startEvents.forEach(startEvent -> activateElement(instance, startEvent));
+        }
+    }
+
+    private void activateMultiInstanceBody(final ElementInstance body) {
+        body.multiInstanceBody = true;
+
+        final Object inputCollection = evaluate(body.element.inputCollection, body);
+        if (!(inputCollection instanceof List<?> items)) {
+            throw new IllegalStateException("Expected input collection of '%s' to be a list but was '%s'"
+                    .formatted(body.element.id, inputCollection));
+        }
+
+        if (items.isEmpty()) {
+            completeElement(body);
+            return;
+        }
+
+        for (final Object item : items) {
+            final ElementInstance inner = createElementInstance(body, body.element);
+            inner.variables.put(body.element.inputElement, item);
+            enter(inner);
+        }
+    }
+
+    private ElementInstance createElementInstance(final ElementInstance scope, final FlowElement element) {
+        final ElementInstance instance = new ElementInstance(nextKey(), element, scope, scope.processInstance);
+        scope.children.add(instance);
+        scope.processInstance.history.add(new ElementRecord(element.id, State.ACTIVE));
+        return instance;
+    }
+
+    private void completeElement(final ElementInstance instance) {
+        final ElementInstance scope = instance.parent;
+        if (!instance.multiInstanceBody) {
+            applyOutputMappings(instance);
+        }
+
+        instance.state = State.COMPLETED;
+        scope.children.remove(instance);
+        instance.processInstance.history.add(new ElementRecord(instance.element.id, State.COMPLETED));
+
+        if (scope.multiInstanceBody) {
+            if (scope.children.isEmpty()) {
+                completeElement(scope);
+            }
+            return;
+        }
+
+        final List<SequenceFlow> outgoing = outgoingFlows(instance);
+        outgoing.forEach(flow -> activateElement(scope, flow.target()));
+
+        if (outgoing.isEmpty()) {
+            completeScopeIfDone(scope);
+        }
+    }
+
+    private List<SequenceFlow> outgoingFlows(final ElementInstance instance) {
+        final FlowElement element = instance.element;
+        if (element.type != ElementType.EXCLUSIVE_GATEWAY) {
+            return element.outgoing;
+        }
+
+        SequenceFlow defaultFlow = null;
+        for (final SequenceFlow flow : element.outgoing) {
+            if (flow.id().equals(element.defaultFlowId)) {
+                defaultFlow = flow;
+            } else if (flow.conditionExpression() == null || Boolean.TRUE.equals(evaluate(flow.conditionExpression(), instance))) {
+                return List.of(flow);
+            }
+        }
+
+        if (defaultFlow == null) {
+            throw new IllegalStateException("Expected at least one condition of '%s' to be fulfilled".formatted(element.id));
+        }
+        return List.of(defaultFlow);
+    }
+
+    private void completeScopeIfDone(final ElementInstance scope) {
+        if (scope.state != State.ACTIVE
+                || !scope.children.isEmpty()
+                || scope.pendingActivations > 0
+                || !scope.joiningFlows.isEmpty()) {
+            return;
+        }
+
+        final ProcessInstance processInstance = scope.processInstance;
+        if (scope != processInstance.root) {
+            completeElement(scope);
+            return;
+        }
+
+        scope.state = State.COMPLETED;
+        processInstance.history.add(new ElementRecord(processInstance.processId, State.COMPLETED));
+
+        final ElementInstance callActivity = processInstance.callActivity;
+        if (callActivity != null && callActivity.state == State.ACTIVE) {
+            callActivity.calledProcessInstance = null;
+            if (callActivity.element.propagateAllChildVariables) {
+                propagateVariables(callActivity, scope.variables);
+            }
+            completeElement(callActivity);
+        }
+    }
+
+    private void terminate(final ElementInstance instance) {
+        for (final ElementInstance child : List.copyOf(instance.children)) {
+            terminate(child);
+        }
+
+        jobs.values().removeIf(job -> job.elementInstance == instance);
+        closeTriggers(instance);
+
+        if (instance.calledProcessInstance != null) {
+            terminate(instance.calledProcessInstance.root);
+        }
+
+        instance.state = State.TERMINATED;
+        if (instance.parent != null) {
+            instance.parent.children.remove(instance);
+        }
+
+        final String elementId = instance.element == null ? instance.processInstance.processId : instance.element.id;
+        instance.processInstance.history.add(new ElementRecord(elementId, State.TERMINATED));
+    }
+
+    private void throwError(final ElementInstance source, final String errorCode, final Map<String, Object> variables) {
+        ElementInstance candidate = source;
+        while (candidate != null) {
+            if (candidate.element == null) {
+                // the error is not caught in the process, continue with the calling process
+                candidate = candidate.processInstance.callActivity;
+                continue;
+            }
+
+            if (candidate.parent.multiInstanceBody) {
+                // boundary events are attached to the multi-instance body
+                candidate = candidate.parent;
+                continue;
+            }
+
+            for (final FlowElement boundaryEvent : candidate.element.boundaryEvents) {
+                if (boundaryEvent.errorEvent
+                        && (boundaryEvent.errorCode == null || boundaryEvent.errorCode.equals(errorCode))) {
+                    final ElementInstance scope = candidate.parent;
+                    terminate(candidate);
+
+                    final ElementInstance eventInstance = createElementInstance(scope, boundaryEvent);
+                    setResultVariables(eventInstance, variables);
+                    completeElement(eventInstance);
+                    return;
+                }
+            }
+            candidate = candidate.parent;
+        }
+
+        incidents.add("Unhandled error '%s' thrown by element '%s'".formatted(errorCode, source.element.id));
+    }
+
+    // --- events
+
+    private void openTrigger(final ElementInstance owner, final FlowElement event) {
+        if (event.timerDuration != null) {
+            timers.add(new Timer(owner, event, currentTime.plus(event.timerDuration)));
+        } else if (event.messageName != null) {
+            final Object correlationKey = evaluate(event.correlationKeyExpression, owner);
+            subscriptions.add(new Subscription(owner, event, event.messageName, String.valueOf(correlationKey)));
+            // correlate a buffered message after all events of an event-based gateway are opened
+            agenda.add(() -> correlateBufferedMessage(owner));
+        } else {
+            throw new UnsupportedOperationException("Unsupported catch event: " + event.id);
+        }
+    }
+
+    private void correlateBufferedMessage(final ElementInstance owner) {
+        for (final BufferedMessage message : List.copyOf(bufferedMessages)) {
+            for (final Subscription subscription : List.copyOf(subscriptions)) {
+                if (subscription.owner() == owner && subscription.matches(message.name(), message.correlationKey())) {
+                    bufferedMessages.remove(message);
+                    trigger(owner, subscription.event(), message.variables());
+                    return;
+                }
+            }
+        }
+    }
+
+    private List<Long> correlate(final String messageName, final String correlationKey, final Map<String, Object> variables) {
+        final List<Long> correlatedInstances = new ArrayList<>();
+
+        for (final BpmnModel.Process process : processes.values()) {
+            for (final FlowElement startEvent : process.scope().startEvents) {
+                if (messageName.equals(startEvent.messageName)) {
+                    correlatedInstances.add(createProcessInstance(process, startEvent, variables, null).key);
+                }
+            }
+        }
+
+        final Set<Long> correlatedSubscriptionInstances = new HashSet<>();
+        for (final Subscription subscription : List.copyOf(subscriptions)) {
+            if (!subscription.matches(messageName, correlationKey)) {
+                continue;
+            }
+            // a previous correlation may have closed the subscription
+            final long processInstanceKey = subscription.owner().processInstance.key;
+            if (subscriptions.contains(subscription) && correlatedSubscriptionInstances.add(processInstanceKey)) {
+                trigger(subscription.owner(), subscription.event(), variables);
+                correlatedInstances.add(processInstanceKey);
+            }
+        }
+        return correlatedInstances;
+    }
+
+    private void trigger(final ElementInstance owner, final FlowElement event, final Map<String, Object> variables) {
+        closeTriggers(owner);
+
+        if (owner.element.type == ElementType.EVENT_BASED_GATEWAY) {
+            // the gateway completes and the triggered event takes over its token
+            final ElementInstance scope = owner.parent;
+            owner.state = State.COMPLETED;
+            scope.children.remove(owner);
+            owner.processInstance.history.add(new ElementRecord(owner.element.id, State.COMPLETED));
+
+            final ElementInstance eventInstance = createElementInstance(scope, event);
+            setResultVariables(eventInstance, variables);
+            completeElement(eventInstance);
+        } else {
+            setResultVariables(owner, variables);
+            completeElement(owner);
+        }
+    }
+
+    private void closeTriggers(final ElementInstance owner) {
+        subscriptions.removeIf(subscription -> subscription.owner() == owner);
+        timers.removeIf(timer -> timer.owner() == owner);
+    }
+
+    private synchronized boolean triggerDueTimer() {
+        final Optional<Timer> dueTimer = nextDueTimer();
+        if (dueTimer.isEmpty()) {
+            return false;
+        }
+
+        final Timer timer = dueTimer.get();
+        timerTriggers.add(new TimerTrigger(timer.owner().processInstance.key, timer.event().id, timer.dueDate()));
+        trigger(timer.owner(), timer.event(), Map.of());
+        process();
+        return true;
+    }
+
+    private Optional<Timer> nextDueTimer() {
+        return timers.stream()
+                .filter(timer -> !timer.dueDate().isAfter(currentTime))
+                .min(Comparator.comparing(Timer::dueDate));
+    }
+
+    // --- jobs
+
+    private void createJob(final ElementInstance instance) {
+        final long key = nextKey();
+        jobs.put(key, new Job(key, instance.element.jobType, instance.element.jobRetries, instance));
+    }
+
+    private Job job(final long jobKey) {
+        final Job job = jobs.get(jobKey);
+        if (job == null) {
+            throw new IllegalStateException("Expected to find job with key %d, but no such job was found".formatted(jobKey));
+        }
+        return job;
+    }
+
+    private Job removeJob(final long jobKey) {
+        final Job job = job(jobKey);
+        jobs.remove(jobKey);
+        return job;
+    }
+
+    private LiteJob toLiteJob(final Job job) {
+        final ElementInstance instance = job.elementInstance;
+        return new LiteJob(
+                job.key,
+                job.type,
+                instance.processInstance.key,
+                instance.processInstance.processId,
+                instance.key,
+                instance.element.id,
+                job.retries,
+                Collections.unmodifiableMap(instance.element.taskHeaders),
+                Collections.unmodifiableMap(visibleVariables(instance)));
+    }
+
+    // --- variables
+
+    private Object evaluate(final String expression, final ElementInstance instance) {
+        final Map<String, Object> variables = visibleVariables(instance);
+        return FeelExpression.evaluate(expression, variables::get);
+    }
+
+    private static Map<String, Object> visibleVariables(final ElementInstance instance) {
+        final List<ElementInstance> scopes = new ArrayList<>();
+        for (ElementInstance scope = instance; scope != null; scope = scope.parent) {
+            scopes.add(0, scope);
+        }
+
+        final Map<String, Object> variables = new HashMap<>();
+        scopes.forEach(scope -> variables.putAll(scope.variables));
+        return variables;
+    }
+
+    /** Sets the inputs as local variables of the element instance, one after the other. */
+    private void applyInputMappings(final ElementInstance instance) {
+        for (final BpmnModel.Mapping input : instance.element.inputMappings) {
+            final Object value = normalize(evaluate(input.source(), instance));
+            setPath(instance.variables, input.target(), value);
+        }
+    }
+
+    /** Sets the outputs in the scope of the element instance, see {@link #propagateVariables}. */
+    private void applyOutputMappings(final ElementInstance instance) {
+        if (instance.element == null || instance.element.outputMappings.isEmpty()) {
+            return;
+        }
+        final Map<String, Object> outputs = new HashMap<>();
+        for (final BpmnModel.Mapping output : instance.element.outputMappings) {
+            setPath(outputs, output.target(), normalize(evaluate(output.source(), instance)));
+        }
+        propagateVariables(instance.parent, outputs);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void setPath(final Map<String, Object> variables, final String path, final Object value) {
+        final String[] names = path.split("\\.");
+        Map<String, Object> context = variables;
+        for (int i = 0; i < names.length - 1; i++) {
+            final Object nested = context.get(names[i]);
+            if (nested instanceof Map<?, ?>) {
+                context = (Map<String, Object>) nested;
+            } else {
+                final Map<String, Object> created = new HashMap<>();
+                context.put(names[i], created);
+                context = created;
+            }
+        }
+        context.put(names[names.length - 1], value);
+    }
+
+    /**
+     * Sets the variables of a completed job, a correlated message or a caught error. If the element
+     * has output mappings, the variables are local and only the outputs leave the element, as in
+     * the engine.
+     */
+    private static void setResultVariables(final ElementInstance instance, final Map<String, Object> variables) {
+        if (instance.element.outputMappings.isEmpty()) {
+            propagateVariables(instance, variables);
+        } else {
+            instance.variables.putAll(normalize(variables));
+        }
+    }
+
+    /** Sets each variable in the closest scope that already contains it, or in the process instance. */
+    private static void propagateVariables(final ElementInstance instance, final Map<String, Object> variables) {
+        normalize(variables).forEach((name, value) -> {
+            ElementInstance scope = instance;
+            while (scope.parent != null && !scope.variables.containsKey(name)) {
+                scope = scope.parent;
+            }
+            scope.variables.put(name, value);
+        });
+    }
+
+    /** Converts the variables to their JSON representation, as the engine does. */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> normalize(final Map<String, Object> variables) {
+        return variables == null ? new HashMap<>() : OBJECT_MAPPER.convertValue(variables, HashMap.class);
+    }
+
+    static Object normalize(final Object value) {
+        return OBJECT_MAPPER.convertValue(value, Object.class);
+    }
+
+    private BpmnModel.Process process(final String processId) {
+        final BpmnModel.Process process = processes.get(processId);
+        if (process == null) {
+            throw new IllegalArgumentException("Expected to find process with id '%s', but it was not deployed".formatted(processId));
+        }
+        return process;
+    }
+
+    private long nextKey() {
+        return nextKey++;
+    }
+
+    // --- state
+
+    /** The state of a process instance, see {@link LiteAssert}. */
+    public static final class ProcessInstance {
+
+        private final long key;
+        private final String processId;
+        private final ElementInstance callActivity;
+        private final List<ElementRecord> history = new ArrayList<>();
+        private ElementInstance root;
+
+        private ProcessInstance(final long key, final String processId, final ElementInstance callActivity) {
+            this.key = key;
+            this.processId = processId;
+            this.callActivity = callActivity;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        public String getProcessId() {
+            return processId;
+        }
+
+        public State getState() {
+            return root.state;
+        }
+
+        /** Returns the activated, completed and terminated elements in the order of the events. */
+        public List<ElementRecord> getHistory() {
+            return Collections.unmodifiableList(history);
+        }
+
+        public List<String> getActiveElements() {
+            final List<String> activeElements = new ArrayList<>();
+            collectActiveElements(root, activeElements);
+            return activeElements;
+        }
+
+        public Map<String, Object> getVariables() {
+            return Collections.unmodifiableMap(root.variables);
+        }
+
+        private static void collectActiveElements(final ElementInstance scope, final List<String> activeElements) {
+            for (final ElementInstance child : scope.children) {
+                activeElements.add(child.element.id);
+                collectActiveElements(child, activeElements);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "ProcessInstance{key=%d, processId='%s', state=%s}".formatted(key, processId, getState());
+        }
+    }
+
+    private static final class ElementInstance {
+
+        private final long key;
+        private final FlowElement element;
+        private final ElementInstance parent;
+        private final ProcessInstance processInstance;
+        private final Map<String, Object> variables = new HashMap<>();
+        private final List<ElementInstance> children = new ArrayList<>();
+        private final Map<String, Integer> joiningFlows = new HashMap<>();
+
+        private State state = State.ACTIVE;
+        private int pendingActivations;
+        private boolean multiInstanceBody;
+        private ProcessInstance calledProcessInstance;
+
+        private ElementInstance(
+                final long key,
+                final FlowElement element,
+                final ElementInstance parent,
+                final ProcessInstance processInstance) {
+            this.key = key;
+            this.element = element;
+            this.parent = parent;
+            this.processInstance = processInstance;
+        }
+    }
+
+    private static final class Job {
+
+        private final long key;
+        private final String type;
+        private final ElementInstance elementInstance;
+        private int retries;
+        private boolean activated;
+
+        private Job(final long key, final String type, final int retries, final ElementInstance elementInstance) {
+            this.key = key;
+            this.type = type;
+            this.retries = retries;
+            this.elementInstance = elementInstance;
+        }
+    }
+
+    private record Subscription(ElementInstance owner, FlowElement event, String messageName, String correlationKey) {
+
+        boolean matches(final String name, final String key) {
+            return messageName.equals(name) && correlationKey.equals(key);
+        }
+    }
+
+    private record Timer(ElementInstance owner, FlowElement event, Instant dueDate) {}
+
+    private record BufferedMessage(String name, String correlationKey, Map<String, Object> variables, Instant expiresAt) {}
+}
@@ -0,0 +1,83 @@
+package org.example.lite;
+
+import java.util.Map;
+
+/** An activated job of the {@link LiteEngine}, with the same getters as the client's {@code ActivatedJob}. */
+public final class LiteJob {
+
+    private final long key;
+    private final String type;
+    private final long processInstanceKey;
+    private final String bpmnProcessId;
+    private final long elementInstanceKey;
+    private final String elementId;
+    private final int retries;
+    private final Map<String, String> customHeaders;
+    private final Map<String, Object> variables;
+
+    LiteJob(
+            final long key,
+            final String type,
+            final long processInstanceKey,
+            final String bpmnProcessId,
+            final long elementInstanceKey,
+            final String elementId,
+            final int retries,
+            final Map<String, String> customHeaders,
+            final Map<String, Object> variables) {
+        this.key = key;
+        this.type = type;
+        this.processInstanceKey = processInstanceKey;
+        this.bpmnProcessId = bpmnProcessId;
+        this.elementInstanceKey = elementInstanceKey;
+        this.elementId = elementId;
+        this.retries = retries;
+        this.customHeaders = customHeaders;
+        this.variables = variables;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getProcessInstanceKey() {
+        return processInstanceKey;
+    }
+
+    public String getBpmnProcessId() {
+        return bpmnProcessId;
+    }
+
+    public long getElementInstanceKey() {
+        return elementInstanceKey;
+    }
+
+    public String getElementId() {
+        return elementId;
+    }
+
+    public int getRetries() {
+        return retries;
+    }
+
+    public Map<String, String> getCustomHeaders() {
+        return customHeaders;
+    }
+
+    public Map<String, Object> getVariablesAsMap() {
+        return variables;
+    }
+
+    public Object getVariable(final String name) {
+        return variables.get(name);
+    }
+
+    @Override
+    public String toString() {
+        return "LiteJob{key=%d, type='%s', elementId='%s'}".formatted(key, type, elementId);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.lite;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * The counterpart of the {@code CamundaProcessTestContext} for the {@link LiteEngine}: it mocks job
+ * workers and manipulates the engine's clock.
+ */
+public class LiteProcessTestContext {
+
+    private final LiteEngine engine;
+
+    public LiteProcessTestContext(final LiteEngine engine) {
+        this.engine = engine;
+    }
+
+    public JobWorkerMock mockJobWorker(final String jobType) {
+        return new JobWorkerMock(jobType);
+    }
+
+    public void increaseTime(final Duration duration) {
+        engine.increaseTime(duration);
+    }
+
+    public Instant getCurrentTime() {
+        return engine.getCurrentTime();
+    }
+
+    public final class JobWorkerMock {
+
+        private final String jobType;
+
+        private JobWorkerMock(final String jobType) {
+            this.jobType = jobType;
+        }
+
+        public void thenComplete() {
+            thenComplete(Map.of());
+        }
+
+        public void thenComplete(final Map<String, Object> variables) {
+            withHandler((worker, job) -> worker.completeJob(job.getKey(), variables));
+        }
+
+        public void thenThrowBpmnError(final String errorCode) {
+            thenThrowBpmnError(errorCode, Map.of());
+        }
+
+        public void thenThrowBpmnError(final String errorCode, final Map<String, Object> variables) {
+            withHandler((worker, job) -> worker.throwError(job.getKey(), errorCode, variables));
+        }
+
+        public void withHandler(final LiteEngine.JobWorker handler) {
+            engine.registerJobWorker(jobType, handler);
+        }
+    }
+}
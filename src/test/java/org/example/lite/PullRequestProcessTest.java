@@ -0,0 +1,209 @@
+package org.example.lite;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The scenarios of the {@code prCreatedProcess} process on the {@link LiteEngine}, see {@link
+ * ReferenceScenarioCoverageTest} for how they relate to the ZPT and CPT tests.
+ */
+public class PullRequestProcessTest {
+
+    private static final String PULL_REQUEST_PROCESS_RESOURCE_NAME = "pr-created.bpmn";
+    private static final String AUTOMATED_TESTS_PROCESS_RESOURCE_NAME = "automated-tests.bpmn";
+    private static final String PULL_REQUEST_PROCESS_ID = "prCreatedProcess";
+    private static final String AUTOMATED_TESTS_PROCESS_ID = "automatedTestsProcess";
+    private static final String AUTOMATED_TESTS_RUN_TESTS = "runTests";
+    private static final String PR_CREATED_MSG = "prCreated";
+    private static final String REVIEW_RECEIVED_MSG = "reviewReceived";
+    private static final String PR_ID_VAR = "prId";
+    private static final String REVIEW_RESULT_VAR = "reviewResult";
+    private static final String REQUEST_REVIEW = "requestReview";
+    private static final String REMIND_REVIEWER = "remindReviewer";
+    private static final String MAKE_CHANGES = "makeChanges";
+    private static final String MERGE_CODE = "mergeCode";
+    private static final String DEPLOY_SNAPSHOT = "deploySnapshot";
+
+    private final LiteEngine engine = new LiteEngine();
+    private final LiteClient client = new LiteClient(engine);
+    private final LiteProcessTestContext processTestContext = new LiteProcessTestContext(engine);
+
+    @BeforeEach
+    void deployProcesses() {
+        // The engine is created for each test. Therefore, we need to deploy the process each time
+        final var deploymentEvent = client.newDeployResourceCommand()
+                .addResourceFromClasspath(PULL_REQUEST_PROCESS_RESOURCE_NAME)
+                .addResourceFromClasspath(AUTOMATED_TESTS_PROCESS_RESOURCE_NAME)
+                .send()
+                .join();
+
+        assertThat(deploymentEvent.processIds())
+                .contains(PULL_REQUEST_PROCESS_ID, AUTOMATED_TESTS_PROCESS_ID);
+    }
+
+    @Test
+    void testPullRequestCreatedHappyPath() {
+        // Given
+        final String pullRequestId = "123";
+
+        // When
+
+        //  -> send message to create process instance
+        final var correlateMessageResponse =
+                sendMessage(PR_CREATED_MSG, "", singletonMap(PR_ID_VAR, pullRequestId));
+
+        //  -> complete user task
+        completeUserTask(REQUEST_REVIEW);
+
+        //  -> send another message to drive the process forward
+        sendMessage(REVIEW_RECEIVED_MSG, pullRequestId, singletonMap(REVIEW_RESULT_VAR, "approved"));
+
+        //  -> complete the service tasks of the multi instance sub process in the called process
+        completeServiceTasks(AUTOMATED_TESTS_RUN_TESTS, 3);
+
+        //  -> back on the main process, there are two more tasks to complete to reach the end
+        completeUserTask(MERGE_CODE);
+        completeServiceTask(DEPLOY_SNAPSHOT);
+
+        // Then
+        LiteAssert.assertThat(engine.processInstance(correlateMessageResponse.getProcessInstanceKey()))
+                .hasCompletedElementsInOrder(REQUEST_REVIEW, MERGE_CODE, DEPLOY_SNAPSHOT)
+                .hasNotActivatedElements(REMIND_REVIEWER, MAKE_CHANGES)
+                .hasVariable(REVIEW_RESULT_VAR, "approved")
+                .isCompleted();
+
+        LiteAssert.assertThat(engine.latestProcessInstance(AUTOMATED_TESTS_PROCESS_ID))
+                .hasCompletedElement(AUTOMATED_TESTS_RUN_TESTS, 3)
+                .isCompleted();
+    }
+
+    @Test
+    void testRemindReviewer() {
+        // Given
+        final String prId = "123";
+
+        // When
+        final var correlateMessageResponse =
+                sendMessage(PR_CREATED_MSG, "", singletonMap(PR_ID_VAR, prId));
+        completeUserTask(REQUEST_REVIEW);
+
+        completeServiceTasks(AUTOMATED_TESTS_RUN_TESTS, 3);
+
+        //  The clock of the engine only moves when the time is increased
+        processTestContext.increaseTime(Duration.ofDays(1));
+
+        completeServiceTask(REMIND_REVIEWER);
+
+        sendMessage(REVIEW_RECEIVED_MSG, prId, singletonMap(REVIEW_RESULT_VAR, "approved"));
+
+        completeUserTask(MERGE_CODE);
+        completeServiceTask(DEPLOY_SNAPSHOT);
+
+        // Then
+        LiteAssert.assertThat(engine.processInstance(correlateMessageResponse.getProcessInstanceKey()))
+                .hasCompletedElementsInOrder(REQUEST_REVIEW, REMIND_REVIEWER, MERGE_CODE, DEPLOY_SNAPSHOT)
+                .hasNotActivatedElements(MAKE_CHANGES)
+                .isCompleted();
+    }
+
+    @Test
+    void testRejectReview() {
+        // Given
+        final String prId = "123";
+
+        // When
+        final var correlateMessageResponse =
+                sendMessage(PR_CREATED_MSG, "", singletonMap(PR_ID_VAR, prId));
+
+        completeUserTask(REQUEST_REVIEW);
+
+        completeServiceTasks(AUTOMATED_TESTS_RUN_TESTS, 3);
+
+        sendMessage(REVIEW_RECEIVED_MSG, prId, singletonMap(REVIEW_RESULT_VAR, "rejected"));
+
+        completeUserTask(MAKE_CHANGES);
+
+        completeUserTask(REQUEST_REVIEW);
+
+        sendMessage(REVIEW_RECEIVED_MSG, prId, singletonMap(REVIEW_RESULT_VAR, "approved"));
+
+        completeUserTask(MERGE_CODE);
+        completeServiceTask(DEPLOY_SNAPSHOT);
+
+        // Then
+        LiteAssert.assertThat(engine.processInstance(correlateMessageResponse.getProcessInstanceKey()))
+                .hasCompletedElementsInOrder(REQUEST_REVIEW, MAKE_CHANGES, REQUEST_REVIEW, MERGE_CODE, DEPLOY_SNAPSHOT)
+                .hasNotActivatedElements(REMIND_REVIEWER)
+                .isCompleted();
+    }
+
+    private LiteClient.CorrelateMessageResponse sendMessage(
+            final String messageName, final String correlationKey, final Map<String, Object> variables) {
+        return client
+                .newCorrelateMessageCommand()
+                .messageName(messageName)
+                .correlationKey(correlationKey)
+                .variables(variables)
+                .send()
+                .join();
+    }
+
+    private void completeServiceTask(final String jobType) {
+        completeServiceTasks(jobType, 1);
+    }
+
+    private void completeServiceTasks(final String jobType, final int count) {
+        final var activateJobsResponse =
+                client.newActivateJobsCommand().jobType(jobType).maxJobsToActivate(count).send().join();
+
+        final int activatedJobCount = activateJobsResponse.getJobs().size();
+        if (activatedJobCount < count) {
+            Assertions.fail(
+                    "Unable to activate %d jobs, because only %d were activated."
+                            .formatted(count, activatedJobCount));
+        }
+
+        for (int i = 0; i < count; i++) {
+            final var job = activateJobsResponse.getJobs().get(i);
+
+            client.newCompleteCommand(job.getKey()).send().join();
+        }
+    }
+
+    private void completeUserTask(final String elementId) {
+        // user tasks can be controlled similarly to service tasks
+        // all user tasks share a common job type
+        final var activateJobsResponse =
+                client
+                        .newActivateJobsCommand()
+                        .jobType("io.camunda.zeebe:userTask")
+                        .maxJobsToActivate(100)
+                        .send()
+                        .join();
+
+        boolean userTaskWasCompleted = false;
+
+        for (final LiteJob userTask : activateJobsResponse.getJobs()) {
+            if (userTask.getElementId().equals(elementId)) {
+                // complete the user task we care about
+                client.newCompleteCommand(userTask).send().join();
+                userTaskWasCompleted = true;
+            } else {
+                // fail all other user tasks that were activated
+                // failing a task with a retry value >0 means the task can be reactivated in the future
+                client.newFailCommand(userTask).retries(Math.max(userTask.getRetries(), 1)).send().join();
+            }
+        }
+
+        if (!userTaskWasCompleted) {
+            Assertions.fail("Tried to complete task `%s`, but it was not found".formatted(elementId));
+        }
+    }
+}
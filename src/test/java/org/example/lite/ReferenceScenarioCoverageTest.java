@@ -0,0 +1,48 @@
+package org.example.lite;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the lite process tests cover each scenario of the ZPT and CPT process tests.
+ *
+ * <p>The lite tests replace the ZPT and CPT tests for the day-to-day coverage of the process paths,
+ * and new scenarios are only added there. The ZPT and CPT tests stay unchanged as the reference of
+ * the migration and as the check against the real engine. They are tagged {@code engine} and only
+ * run with {@code mvn test -Pengine}, because each of them starts the engine in a container.
+ */
+public class ReferenceScenarioCoverageTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"org.example.zpt", "org.example.cpt"})
+    void shouldCoverScenariosOfReferenceTests(final String referencePackage) throws Exception {
+        for (final Class<?> liteTest : Set.of(SignUpProcessTest.class, PullRequestProcessTest.class)) {
+            // given
+            final Class<?> referenceTest = Class.forName(referencePackage + "." + liteTest.getSimpleName(), false,
+                    getClass().getClassLoader());
+
+            // when
+            final Set<String> referenceScenarios = scenarios(referenceTest);
+
+            // then
+            assertThat(scenarios(liteTest))
+                    .describedAs("scenarios of %s", referenceTest.getName())
+                    .containsAll(referenceScenarios);
+        }
+    }
+
+    private static Set<String> scenarios(final Class<?> testClass) {
+        return Arrays.stream(testClass.getDeclaredMethods())
+                .filter(method -> method.isAnnotationPresent(Test.class))
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.lite;
+
+import org.example.model.Account;
+import org.example.model.SignUpForm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The scenarios of the {@code sign-up} process on the {@link LiteEngine}, see {@link
+ * ReferenceScenarioCoverageTest} for how they relate to the ZPT and CPT tests.
+ */
+public class SignUpProcessTest {
+
+    private static final String PROCESS_RESOURCE_NAME = "bpmn/Sign-up process.bpmn";
+    private static final String PROCESS_ID = "sign-up";
+
+    private static final String USER_NAME = "Demo";
+    private static final String EMAIL = "demo@camunda.com";
+    private static final String ACCOUNT_ID = "account-id-0001";
+    private static final String ACTIVATION_CODE = "activation-code-0001";
+
+    private final LiteEngine engine = new LiteEngine();
+    private final LiteClient client = new LiteClient(engine);
+    private final LiteProcessTestContext processTestContext = new LiteProcessTestContext(engine);
+
+    @BeforeEach
+    void configureMocks() {
+        // The engine is created for each test. Therefore, we need to deploy the process each time
+        client.newDeployResourceCommand().addResourceFromClasspath(PROCESS_RESOURCE_NAME).send().join();
+
+        processTestContext.mockJobWorker("io.camunda:sendgrid:1").thenComplete();
+        processTestContext.mockJobWorker("backend:confirm-account").thenComplete();
+        processTestContext.mockJobWorker("accounts:activate").thenComplete();
+        processTestContext.mockJobWorker("subscriptions:subscribe").thenComplete();
+        processTestContext.mockJobWorker("accounts:delete").thenComplete();
+        processTestContext.mockJobWorker("backend:reject-sign-up").thenComplete();
+    }
+
+    // Sign-up process (process-id: "sign-up")
+    // |- New sign-up (element-id: "new-sign-up")
+    // |--- Create account (element-id: "create-account")
+    // |--- Send activation email (element-id: "send-activation-email")
+    // |--- Send confirmation (element-id: "send-confirmation")
+    // |--- Await email activation (element-id: "await-email-activation")
+    // |--- (message) Email confirmed (element-id: "message-email-confirmed")
+    // |--- Activate account (element-id: "activate-account")
+    // |--- Subscribe to newsletter (element-id: "subscribe-to-newsletter")
+    // |--- Account created (element-id: "account-created")
+    // |- (timer) 3 days (element-id: "timer-three-days")
+    // |--- Delete account (element-id: "delete-account")
+    // |--- Account deleted (element-id: "account-deleted")
+    // |- (error) Invalid (element-id: "error-invalid-account")
+    // |--- Send rejection (element-id: "send-rejection")
+    // |--- Sign-up rejected (element-id: "sign-up-rejected")
+
+    @Test
+    void shouldCreateAccountWithSubscription() {
+        // given
+        final var signUpForm = new SignUpForm(USER_NAME, EMAIL, true);
+        final var account = new Account(ACCOUNT_ID, USER_NAME, EMAIL, true, ACTIVATION_CODE);
+
+        processTestContext.mockJobWorker("accounts:create").thenComplete(Map.of("account", account));
+
+        final var processInstance = client
+                .newCreateInstanceCommand()
+                .bpmnProcessId(PROCESS_ID)
+                .latestVersion()
+                .variable("signUpForm", signUpForm)
+                .send()
+                .join();
+
+        // when
+        LiteAssert.assertThat(processInstance)
+                .isActive()
+                .hasCompletedElements("create-account")
+                .hasActiveElements("await-email-activation");
+
+        client
+                .newPublishMessageCommand()
+                .messageName("backend:email-confirmed")
+                .correlationKey(account.id())
+                .send()
+                .join();
+
+        // then
+        LiteAssert.assertThat(processInstance)
+                .isCompleted()
+                .hasCompletedElementsInOrder(
+                        "new-sign-up",
+                        "create-account",
+                        "send-activation-email",
+                        "send-confirmation",
+                        "message-email-confirmed",
+                        "activate-account",
+                        "subscribe-to-newsletter",
+                        "account-created");
+    }
+
+    @Test
+    void shouldDeleteAccountIfEmailIsNotConfirmed() {
+        // given
+        final var signUpForm = new SignUpForm(USER_NAME, EMAIL, false);
+        final var account = new Account(ACCOUNT_ID, USER_NAME, EMAIL, false, ACTIVATION_CODE);
+
+        processTestContext.mockJobWorker("accounts:create").thenComplete(Map.of("account", account));
+
+        final var processInstance = client
+                .newCreateInstanceCommand()
+                .bpmnProcessId(PROCESS_ID)
+                .latestVersion()
+                .variable("signUpForm", signUpForm)
+                .send()
+                .join();
+
+        // when
+        processTestContext.increaseTime(Duration.ofDays(3));
+
+        // then
+        LiteAssert.assertThat(processInstance)
+                .isCompleted()
+                .hasCompletedElementsInOrder("await-email-activation", "timer-three-days", "delete-account", "account-deleted")
+                .hasNotActivatedElements("message-email-confirmed", "activate-account");
+    }
+
+    @Test
+    void shouldRejectInvalidSignUp() {
+        // given
+        final var signUpForm = new SignUpForm(USER_NAME, "invalid", false);
+
+        processTestContext.mockJobWorker("accounts:create").thenThrowBpmnError("invalid-account",
+                Map.of("rejectionReason", "invalid email", "validationErrors", List.of("email")));
+
+        // when
+        final var processInstance = client
+                .newCreateInstanceCommand()
+                .bpmnProcessId(PROCESS_ID)
+                .latestVersion()
+                .variable("signUpForm", signUpForm)
+                .send()
+                .join();
+
+        // then
+        LiteAssert.assertThat(processInstance)
+                .isCompleted()
+                .hasTerminatedElements("create-account")
+                .hasCompletedElementsInOrder("error-invalid-account", "send-rejection", "sign-up-rejected")
+                .hasVariable("rejectionReason", "invalid email")
+                .hasNoVariable("validationErrors");
+    }
+
+    @Test
+    void shouldSendActivationEmailWithMappedInputs() {
+        // given
+        final var signUpForm = new SignUpForm(USER_NAME, EMAIL, false);
+        final var account = new Account(ACCOUNT_ID, USER_NAME, EMAIL, false, ACTIVATION_CODE);
+        final List<LiteJob> emailJobs = new ArrayList<>();
+
+        processTestContext.mockJobWorker("accounts:create").thenComplete(Map.of("account", account));
+        processTestContext.mockJobWorker("io.camunda:sendgrid:1").withHandler((worker, job) -> {
+            emailJobs.add(job);
+            worker.completeJob(job.getKey(), Map.of());
+        });
+
+        // when
+        final var processInstance = client
+                .newCreateInstanceCommand()
+                .bpmnProcessId(PROCESS_ID)
+                .latestVersion()
+                .variable("signUpForm", signUpForm)
+                .send()
+                .join();
+
+        // then
+        assertThat(emailJobs).hasSize(1);
+        final LiteJob emailJob = emailJobs.get(0);
+        assertThat(emailJob.getVariable("to")).isEqualTo(Map.of("name", USER_NAME, "email", EMAIL));
+        assertThat(emailJob.getVariable("from")).isEqualTo(Map.of("name", "Camunda", "email", "philipp.ossler@camunda.com"));
+        assertThat((String) ((Map<?, ?>) emailJob.getVariable("content")).get("value"))
+                .startsWith("Hi, Demo!\n\n")
+                .contains("https://camunda.com/" + ACTIVATION_CODE + "\n");
+        assertThat(emailJob.getCustomHeaders()).containsEntry("retryBackoff", "PT0S");
+
+        LiteAssert.assertThat(processInstance)
+                .hasActiveElements("await-email-activation")
+                .hasNoVariable("to")
+                .hasNoVariable("content");
+    }
+}
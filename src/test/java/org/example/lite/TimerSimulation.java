@@ -0,0 +1,136 @@
+package org.example.lite;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drives many process instances through the clock of the {@link LiteEngine} in fixed steps.
+ *
+ * <p>All jobs are completed by mocked workers. The engine processes each command completely,
+ * including the jobs of the mocked workers, so the engine is idle when a step advances the clock and
+ * when the simulation ends, without waiting for expected counts. The simulation counts the timer
+ * events that the engine triggered in each clock step, and the completed end events that are
+ * registered as a path through the process (e.g. {@code account-created}).
+ */
+public class TimerSimulation {
+
+    private final LiteEngine engine;
+    private final Map<String, String> pathEndEvents = new LinkedHashMap<>();
+
+    public TimerSimulation(final LiteEngine engine) {
+        this.engine = engine;
+    }
+
+    /** Completes all jobs of the given type without variables. */
+    public TimerSimulation mockJobWorker(final String jobType) {
+        return mockJobWorker(jobType, (worker, job) -> worker.completeJob(job.getKey(), Map.of()));
+    }
+
+    /** Handles all jobs of the given type with the handler. */
+    public TimerSimulation mockJobWorker(final String jobType, final LiteEngine.JobWorker handler) {
+        engine.registerJobWorker(jobType, handler);
+        return this;
+    }
+
+    /** Counts each completion of the end event as one process instance taking the path. */
+    public TimerSimulation countAsPath(final String endEventId, final String pathName) {
+        pathEndEvents.put(endEventId, pathName);
+        return this;
+    }
+
+    /**
+     * Runs the simulation. Each step invokes the callback (e.g. to create new process instances or
+     * to publish messages) before the clock is advanced.
+     */
+    public SimulationStatistics run(final int steps, final Duration stepSize, final SimulationStep callback) {
+        final long startTime = System.nanoTime();
+        final Map<String, long[]> timerTriggersPerStep = new LinkedHashMap<>();
+
+        for (int step = 0; step < steps; step++) {
+            callback.beforeClockAdvance(step);
+
+            final int triggersBefore = engine.timerTriggers().size();
+            engine.increaseTime(stepSize);
+
+            final List<LiteEngine.TimerTrigger> triggers = engine.timerTriggers();
+            for (final LiteEngine.TimerTrigger trigger : triggers.subList(triggersBefore, triggers.size())) {
+                timerTriggersPerStep.computeIfAbsent(trigger.elementId(), timer -> new long[steps])[step] += 1;
+            }
+        }
+
+        final Map<String, Long> pathFrequencies = new LinkedHashMap<>();
+        pathEndEvents.values().forEach(path -> pathFrequencies.put(path, 0L));
+        for (final LiteEngine.ProcessInstance processInstance : engine.processInstances()) {
+            for (final LiteEngine.ElementRecord record : processInstance.getHistory()) {
+                final String path = pathEndEvents.get(record.elementId());
+                if (path != null && record.state() == LiteEngine.State.COMPLETED) {
+                    pathFrequencies.merge(path, 1L, Long::sum);
+                }
+            }
+        }
+
+        final Duration wallTime = Duration.ofNanos(System.nanoTime() - startTime);
+        return new SimulationStatistics(steps, stepSize, wallTime, pathFrequencies, timerTriggersPerStep);
+    }
+
+    @FunctionalInterface
+    public interface SimulationStep {
+
+        void beforeClockAdvance(int step);
+    }
+
+    public record SimulationStatistics(
+            int steps,
+            Duration stepSize,
+            Duration wallTime,
+            Map<String, Long> pathFrequencies,
+            Map<String, long[]> timerTriggersPerStep) {
+
+        public long timerTriggers(final String timerElementId) {
+            final long[] triggers = timerTriggersPerStep.getOrDefault(timerElementId, new long[0]);
+            long total = 0;
+            for (final long trigger : triggers) {
+                total += trigger;
+            }
+            return total;
+        }
+
+        /** Returns the number of triggers of the timer event in the given clock step. */
+        public long timerTriggers(final String timerElementId, final int step) {
+            final long[] triggers = timerTriggersPerStep.get(timerElementId);
+            return triggers == null ? 0 : triggers[step];
+        }
+
+        /** Returns the highest number of triggers of the timer event within one clock step. */
+        public long peakTimerTriggers(final String timerElementId) {
+            final long[] triggers = timerTriggersPerStep.getOrDefault(timerElementId, new long[0]);
+            long peak = 0;
+            for (final long trigger : triggers) {
+                peak = Math.max(peak, trigger);
+            }
+            return peak;
+        }
+
+        public Map<String, Long> pathFrequencies() {
+            return Collections.unmodifiableMap(pathFrequencies);
+        }
+
+        public String report() {
+            final StringBuilder report = new StringBuilder()
+                    .append("Simulated %d steps of %s in %d ms wall time%n"
+                            .formatted(steps, stepSize, wallTime.toMillis()));
+
+            pathFrequencies.forEach((path, count) ->
+                    report.append("  path %-20s %6d%n".formatted(path, count)));
+
+            timerTriggersPerStep.keySet().forEach(timer ->
+                    report.append("  timer %-19s %6d (peak %d per step)%n"
+                            .formatted(timer, timerTriggers(timer), peakTimerTriggers(timer))));
+
+            return report.toString();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package org.example.lite;
+
+import org.example.model.Account;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Simulates a few days of sign-ups and pull requests with the engine's clock to see how often the
+ * timer events fire and how many of them fire within the same clock step.
+ *
+ * <p>The outcome of each process instance is derived from its index. This way, the expected path
+ * frequencies and timer triggers are known upfront and are compared with the timer events and end
+ * events that the engine actually triggered.
+ */
+public class TimerSimulationTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TimerSimulationTest.class);
+
+    private static final Duration CLOCK_STEP = Duration.ofHours(6);
+    private static final int ARRIVAL_STEPS = 8;
+
+    // sign-up process
+    private static final String SIGN_UP_PROCESS_RESOURCE_NAME = "bpmn/Sign-up process.bpmn";
+    private static final String SIGN_UP_PROCESS_ID = "sign-up";
+    private static final int SIGN_UPS = 10_000;
+    private static final int SIGN_UPS_PER_STEP = SIGN_UPS / ARRIVAL_STEPS;
+    // the timer "timer-three-days" fires in the 12th clock step after the sign-up
+    private static final int SIGN_UP_TIMER_STEPS = (int) (Duration.ofDays(3).toMillis() / CLOCK_STEP.toMillis());
+    private static final String USER_NAME_PREFIX = "user-";
+
+    // pull request process
+    private static final String PULL_REQUEST_PROCESS_RESOURCE_NAME = "pr-created.bpmn";
+    private static final String AUTOMATED_TESTS_PROCESS_RESOURCE_NAME = "automated-tests.bpmn";
+    private static final int PULL_REQUESTS = 2_000;
+    private static final int PULL_REQUESTS_PER_STEP = PULL_REQUESTS / ARRIVAL_STEPS;
+    // the timer "remindReviewerTimer" fires in the 4th clock step after waiting for the review
+    private static final int REMIND_REVIEWER_TIMER_STEPS = (int) (Duration.ofDays(1).toMillis() / CLOCK_STEP.toMillis());
+    private static final int MAX_REVIEW_DELAY_STEPS = 4 * REMIND_REVIEWER_TIMER_STEPS - 1;
+    private static final String PR_ID_PREFIX = "pr-";
+
+    private final LiteEngine engine = new LiteEngine();
+    private final TimerSimulation simulation = new TimerSimulation(engine);
+
+    @Test
+    void shouldSimulateSignUpTimers() {
+        // given
+        engine.deploy(SIGN_UP_PROCESS_RESOURCE_NAME);
+        simulation
+                .mockJobWorker("accounts:create", this::createAccount)
+                .mockJobWorker("io.camunda:sendgrid:1")
+                .mockJobWorker("backend:confirm-account")
+                .mockJobWorker("backend:reject-sign-up")
+                .mockJobWorker("accounts:activate")
+                .mockJobWorker("subscriptions:subscribe")
+                .mockJobWorker("accounts:delete")
+                .countAsPath("account-created", "account-created")
+                .countAsPath("account-deleted", "account-deleted")
+                .countAsPath("sign-up-rejected", "sign-up-rejected");
+
+        // when
+        final int steps = ARRIVAL_STEPS + SIGN_UP_TIMER_STEPS;
+        final var statistics = simulation.run(steps, CLOCK_STEP, step -> {
+            final int signUps = signUpsUntil(step);
+            for (int index = signUpsUntil(step - 1); index < signUps; index++) {
+                createSignUp(index);
+            }
+
+            for (int index = 0; index < signUps; index++) {
+                if (outcomeOf(index) == SignUpOutcome.CREATED && confirmationStepOf(index) == step) {
+                    confirmEmail(index);
+                }
+            }
+        });
+
+        // then
+        LOG.info("Sign-up simulation:\n{}", statistics.report());
+
+        assertThat(engine.incidents()).isEmpty();
+        assertThat(statistics.pathFrequencies())
+                .containsEntry("account-created", countSignUps(SignUpOutcome.CREATED))
+                .containsEntry("account-deleted", countSignUps(SignUpOutcome.DELETED))
+                .containsEntry("sign-up-rejected", countSignUps(SignUpOutcome.REJECTED));
+
+        for (int step = 0; step < steps; step++) {
+            assertThat(statistics.timerTriggers("timer-three-days", step))
+                    .describedAs("timer triggers in step %d", step)
+                    .isEqualTo(deletionsInStep(step));
+        }
+    }
+
+    @Test
+    void shouldSimulateRemindReviewerTimers() {
+        // given
+        engine.deploy(PULL_REQUEST_PROCESS_RESOURCE_NAME, AUTOMATED_TESTS_PROCESS_RESOURCE_NAME);
+        simulation
+                .mockJobWorker("io.camunda.zeebe:userTask")
+                .mockJobWorker("runTests")
+                .mockJobWorker("remindReviewer")
+                .mockJobWorker("deploySnapshot")
+                .countAsPath("Event_12sbcc5", "merged");
+
+        // when
+        final int steps = ARRIVAL_STEPS + MAX_REVIEW_DELAY_STEPS + 1;
+        final var statistics = simulation.run(steps, CLOCK_STEP, step -> {
+            final int pullRequests = pullRequestsUntil(step);
+            for (int index = pullRequestsUntil(step - 1); index < pullRequests; index++) {
+                publishMessage("prCreated", "", singletonMap("prId", PR_ID_PREFIX + index));
+            }
+
+            for (int index = 0; index < pullRequests; index++) {
+                if (reviewStepOf(index) == step) {
+                    publishMessage("reviewReceived", PR_ID_PREFIX + index, singletonMap("reviewResult", "approved"));
+                }
+            }
+        });
+
+        // then
+        LOG.info("Pull request simulation:\n{}", statistics.report());
+
+        assertThat(engine.incidents()).isEmpty();
+        assertThat(statistics.pathFrequencies()).containsEntry("merged", (long) PULL_REQUESTS);
+
+        for (int step = 0; step < steps; step++) {
+            long expectedReminders = 0;
+            for (int index = 0; index < PULL_REQUESTS; index++) {
+                expectedReminders += remindersOf(index, step) - remindersOf(index, step - 1);
+            }
+            assertThat(statistics.timerTriggers("remindReviewerTimer", step))
+                    .describedAs("timer triggers in step %d", step)
+                    .isEqualTo(expectedReminders);
+        }
+    }
+
+    // --- sign-up process
+
+    private enum SignUpOutcome {
+        CREATED,
+        DELETED,
+        REJECTED
+    }
+
+    private static SignUpOutcome outcomeOf(final int index) {
+        return switch (index % 10) {
+            case 0 -> SignUpOutcome.REJECTED;
+            case 1, 2, 3 -> SignUpOutcome.DELETED;
+            default -> SignUpOutcome.CREATED;
+        };
+    }
+
+    private static int arrivalStepOf(final int index) {
+        return index / SIGN_UPS_PER_STEP;
+    }
+
+    private static int confirmationStepOf(final int index) {
+        // the latest confirmation is published in the same step in which the timer fires
+        return arrivalStepOf(index) + index % SIGN_UP_TIMER_STEPS;
+    }
+
+    private static int timerStepOf(final int index) {
+        return arrivalStepOf(index) + SIGN_UP_TIMER_STEPS - 1;
+    }
+
+    private static int signUpsUntil(final int step) {
+        return Math.min(SIGN_UPS, Math.max(0, step + 1) * SIGN_UPS_PER_STEP);
+    }
+
+    private static long countSignUps(final SignUpOutcome outcome) {
+        long count = 0;
+        for (int index = 0; index < SIGN_UPS; index++) {
+            if (outcomeOf(index) == outcome) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long deletionsInStep(final int step) {
+        long deletions = 0;
+        for (int index = 0; index < SIGN_UPS; index++) {
+            if (outcomeOf(index) == SignUpOutcome.DELETED && timerStepOf(index) == step) {
+                deletions++;
+            }
+        }
+        return deletions;
+    }
+
+    private void createSignUp(final int index) {
+        engine.createProcessInstance(SIGN_UP_PROCESS_ID, Map.of("signUpForm", Map.of(
+                "userName", USER_NAME_PREFIX + index,
+                "email", USER_NAME_PREFIX + index + "@camunda.com",
+                "subscribeToNewsletter", index % 2 == 0)));
+    }
+
+    private void createAccount(final LiteEngine worker, final LiteJob job) {
+        final var signUpForm = (Map<?, ?>) job.getVariable("signUpForm");
+        final String userName = (String) signUpForm.get("userName");
+        final int index = Integer.parseInt(userName.substring(USER_NAME_PREFIX.length()));
+        if (outcomeOf(index) == SignUpOutcome.REJECTED) {
+            worker.throwError(job.getKey(), "invalid-account", Map.of("rejectionReason", "invalid email"));
+        } else {
+            final var account = new Account(
+                    accountIdOf(index), userName, (String) signUpForm.get("email"),
+                    (Boolean) signUpForm.get("subscribeToNewsletter"), "activation-code-" + index);
+            worker.completeJob(job.getKey(), Map.of("account", account));
+        }
+    }
+
+    private void confirmEmail(final int index) {
+        publishMessage("backend:email-confirmed", accountIdOf(index), Map.of());
+    }
+
+    private static String accountIdOf(final int index) {
+        return "account-" + index;
+    }
+
+    // --- pull request process
+
+    private static int pullRequestsUntil(final int step) {
+        return Math.min(PULL_REQUESTS, Math.max(0, step + 1) * PULL_REQUESTS_PER_STEP);
+    }
+
+    private static int reviewStepOf(final int index) {
+        return index / PULL_REQUESTS_PER_STEP + index % (MAX_REVIEW_DELAY_STEPS + 1);
+    }
+
+    private static long remindersOf(final int index, final int step) {
+        // the timer fires at the end of every 4th step while the pull request waits for the review
+        final int arrivalStep = index / PULL_REQUESTS_PER_STEP;
+        long reminders = 0;
+        for (int timerStep = arrivalStep + REMIND_REVIEWER_TIMER_STEPS - 1;
+             timerStep <= step && timerStep < reviewStepOf(index);
+             timerStep += REMIND_REVIEWER_TIMER_STEPS) {
+            reminders++;
+        }
+        return reminders;
+    }
+
+    // --- helpers
+
+    private void publishMessage(
+            final String messageName, final String correlationKey, final Map<String, Object> variables) {
+        // the process instance waits for the message, it must not be buffered
+        assertThat(engine.publishMessage(messageName, correlationKey, variables, Duration.ZERO))
+                .describedAs("correlated process instances of message '%s' with key '%s'", messageName, correlationKey)
+                .hasSize(1);
+    }
+}
@@ -0,0 +1,367 @@
+package org.example.profiling;
+
+import io.camunda.zeebe.protocol.record.Record;
+import io.camunda.zeebe.protocol.record.RecordType;
+import io.camunda.zeebe.protocol.record.intent.JobBatchIntent;
+import io.camunda.zeebe.protocol.record.intent.JobIntent;
+import io.camunda.zeebe.protocol.record.intent.ProcessInstanceIntent;
+import io.camunda.zeebe.protocol.record.value.BpmnElementType;
+import io.camunda.zeebe.protocol.record.value.JobBatchRecordValue;
+import io.camunda.zeebe.protocol.record.value.JobRecordValue;
+import io.camunda.zeebe.protocol.record.value.ProcessInstanceRecordValue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Breaks down the duration of each element instance from the records that the engine writes, for
+ * example the records of the {@code RecordStreamSource} of the {@code ZeebeTestEngine} or of an
+ * exporter. For an element with a job, like a service task, the duration is split further:
+ *
+ * <ul>
+ *   <li>{@link Phase#JOB_PICKUP}: from the job being created (or failed, or timed out) until a worker
+ *       activated it
+ *   <li>{@link Phase#JOB_HANDLER}: from the job being activated until the worker completed, failed or
+ *       threw an error for it
+ * </ul>
+ *
+ * <p>For all other elements, like an event-based gateway that waits for a message, the {@link
+ * Phase#TOTAL} duration is the time spent waiting.
+ *
+ * <p>The critical path of a process instance is exported as folded stacks (one line {@code
+ * frame;frame;frame millis} per stack), which flame graph tools, like {@code flamegraph.pl} or
+ * speedscope, can render directly.
+ */
+public class ElementLatencyProfiler {
+
+    private static final long NO_PARENT = -1L;
+
+    private final Map<Long, ElementInstance> elementInstances = new LinkedHashMap<>();
+    private final Map<Long, ElementInstance> elementInstancesByJobKey = new HashMap<>();
+
+    public enum Phase {
+        TOTAL,
+        JOB_PICKUP,
+        JOB_HANDLER
+    }
+
+    public record HistogramKey(String bpmnProcessId, String elementId, Phase phase) {}
+
+    public record ElementTiming(
+            long elementInstanceKey,
+            String bpmnProcessId,
+            String elementId,
+            BpmnElementType elementType,
+            Duration total,
+            Duration jobPickup,
+            Duration jobHandler,
+            boolean terminated) {}
+
+    public ElementLatencyProfiler recordAll(final Iterable<? extends Record<?>> records) {
+        records.forEach(this::record);
+        return this;
+    }
+
+    public ElementLatencyProfiler record(final Record<?> record) {
+        if (record.getRecordType() != RecordType.EVENT) {
+            return this;
+        }
+
+        switch (record.getValueType()) {
+            case PROCESS_INSTANCE -> onProcessInstanceEvent(record, (ProcessInstanceRecordValue) record.getValue());
+            case JOB -> onJobEvent(record, (JobRecordValue) record.getValue());
+            case JOB_BATCH -> onJobBatchEvent(record, (JobBatchRecordValue) record.getValue());
+            default -> {
+                // not relevant for the durations
+            }
+        }
+        return this;
+    }
+
+    /** Returns the timings of the ended elements of the process instance, in the order of activation. */
+    public List<ElementTiming> timings(final long processInstanceKey) {
+        return elementInstances.values().stream()
+                .filter(ElementInstance::isEnded)
+                .filter(instance -> instance.processInstanceKey == processInstanceKey)
+                .map(ElementInstance::timing)
+                .toList();
+    }
+
+    public LatencyHistogram histogram(final String bpmnProcessId, final String elementId, final Phase phase) {
+        return histograms().getOrDefault(new HistogramKey(bpmnProcessId, elementId, phase), new LatencyHistogram());
+    }
+
+    /** Aggregates the durations of all ended elements, per process, element and phase. */
+    public Map<HistogramKey, LatencyHistogram> histograms() {
+        final Map<HistogramKey, LatencyHistogram> histograms = new LinkedHashMap<>();
+        for (final ElementInstance instance : elementInstances.values()) {
+            if (!instance.isEnded()) {
+                continue;
+            }
+            final ElementTiming timing = instance.timing();
+            recordPhase(histograms, timing, Phase.TOTAL, timing.total());
+            if (instance.hasJob()) {
+                recordPhase(histograms, timing, Phase.JOB_PICKUP, timing.jobPickup());
+                recordPhase(histograms, timing, Phase.JOB_HANDLER, timing.jobHandler());
+            }
+        }
+        return histograms;
+    }
+
+    /** Returns a line per process, element and phase with the count and percentiles of the durations. */
+    public String report() {
+        final StringBuilder report = new StringBuilder();
+        histograms().forEach((key, histogram) -> report
+                .append("%s/%s [%s]: %s%n".formatted(key.bpmnProcessId(), key.elementId(), key.phase(), histogram)));
+        return report.toString();
+    }
+
+    /**
+     * Returns the critical path of the ended root process instance as folded stacks. The critical path
+     * of a scope is found by walking back from its end: the child that ended last is on the path, then
+     * the child that ended last before this child was activated, and so on. For parallel branches,
+     * only the longest branch is on the path. The durations of the frames add up to the duration of
+     * the process instance.
+     */
+    public Map<String, Long> criticalPath(final long processInstanceKey) {
+        final Map<String, Long> stacks = new TreeMap<>();
+        final ElementInstance processInstance = elementInstances.get(processInstanceKey);
+        if (processInstance != null && processInstance.isEnded()) {
+            foldCriticalPath(processInstance, "", childrenByParent(), stacks);
+        }
+        return stacks;
+    }
+
+    /** Sums up the critical paths of all ended root process instances of the given process. */
+    public Map<String, Long> criticalPaths(final String bpmnProcessId) {
+        final Map<String, Long> stacks = new TreeMap<>();
+        final Map<Long, List<ElementInstance>> childrenByParent = childrenByParent();
+        for (final ElementInstance instance : elementInstances.values()) {
+            if (instance.elementType == BpmnElementType.PROCESS
+                    && instance.parentKey == NO_PARENT
+                    && instance.bpmnProcessId.equals(bpmnProcessId)
+                    && instance.isEnded()) {
+                foldCriticalPath(instance, "", childrenByParent, stacks);
+            }
+        }
+        return stacks;
+    }
+
+    /** Formats the folded stacks as the input of a flame graph tool. */
+    public static String toFoldedStacks(final Map<String, Long> stacks) {
+        final StringBuilder folded = new StringBuilder();
+        stacks.forEach((stack, millis) -> folded.append(stack).append(' ').append(millis).append('\n'));
+        return folded.toString();
+    }
+
+    private void onProcessInstanceEvent(final Record<?> record, final ProcessInstanceRecordValue value) {
+        final var intent = (ProcessInstanceIntent) record.getIntent();
+        switch (intent) {
+            case ELEMENT_ACTIVATING -> {
+                // a called process instance is the child of the call activity, all other elements are
+                // the children of their flow scope
+                final long parentKey = value.getBpmnElementType() == BpmnElementType.PROCESS
+                        ? value.getParentElementInstanceKey()
+                        : value.getFlowScopeKey();
+                elementInstances.put(record.getKey(), new ElementInstance(
+                        record.getKey(),
+                        value.getProcessInstanceKey(),
+                        value.getBpmnProcessId(),
+                        value.getElementId(),
+                        value.getBpmnElementType(),
+                        parentKey < 0 ? NO_PARENT : parentKey,
+                        record.getTimestamp()));
+            }
+            case ELEMENT_COMPLETED, ELEMENT_TERMINATED -> {
+                final ElementInstance instance = elementInstances.get(record.getKey());
+                if (instance != null) {
+                    instance.endedAt = record.getTimestamp();
+                    instance.terminated = intent == ProcessInstanceIntent.ELEMENT_TERMINATED;
+                }
+            }
+            default -> {
+                // the other lifecycle transitions don't change the duration
+            }
+        }
+    }
+
+    private void onJobEvent(final Record<?> record, final JobRecordValue value) {
+        final var intent = (JobIntent) record.getIntent();
+        if (intent == JobIntent.CREATED) {
+            final ElementInstance instance = elementInstances.get(value.getElementInstanceKey());
+            if (instance != null) {
+                instance.jobAvailable(record.getTimestamp());
+                elementInstancesByJobKey.put(record.getKey(), instance);
+            }
+            return;
+        }
+
+        final ElementInstance instance = elementInstancesByJobKey.get(record.getKey());
+        if (instance == null) {
+            return;
+        }
+        switch (intent) {
+            case COMPLETED, ERROR_THROWN, CANCELED -> {
+                instance.jobEnded(record.getTimestamp());
+                elementInstancesByJobKey.remove(record.getKey());
+            }
+            // the job can be activated again, possibly after a backoff that doesn't count as pickup time
+            case FAILED, TIMED_OUT -> {
+                instance.jobEnded(record.getTimestamp());
+                if (value.getRetries() > 0 && value.getRetryBackoff() <= 0) {
+                    instance.jobAvailable(record.getTimestamp());
+                }
+            }
+            case RECURRED_AFTER_BACKOFF, RETRIES_UPDATED -> instance.jobAvailable(record.getTimestamp());
+            default -> {
+                // the other job events don't change the duration
+            }
+        }
+    }
+
+    private void onJobBatchEvent(final Record<?> record, final JobBatchRecordValue value) {
+        if (record.getIntent() != JobBatchIntent.ACTIVATED) {
+            return;
+        }
+        for (final Long jobKey : value.getJobKeys()) {
+            final ElementInstance instance = elementInstancesByJobKey.get(jobKey);
+            if (instance != null) {
+                instance.jobActivated(record.getTimestamp());
+            }
+        }
+    }
+
+    private static void recordPhase(final Map<HistogramKey, LatencyHistogram> histograms,
+                                    final ElementTiming timing, final Phase phase, final Duration duration) {
+        histograms.computeIfAbsent(new HistogramKey(timing.bpmnProcessId(), timing.elementId(), phase),
+                key -> new LatencyHistogram()).record(duration);
+    }
+
+    private Map<Long, List<ElementInstance>> childrenByParent() {
+        final Map<Long, List<ElementInstance>> childrenByParent = new HashMap<>();
+        for (final ElementInstance instance : elementInstances.values()) {
+            if (instance.parentKey != NO_PARENT && instance.isEnded()) {
+                childrenByParent.computeIfAbsent(instance.parentKey, key -> new ArrayList<>()).add(instance);
+            }
+        }
+        return childrenByParent;
+    }
+
+    private static void foldCriticalPath(final ElementInstance scope, final String parentStack,
+                                         final Map<Long, List<ElementInstance>> childrenByParent,
+                                         final Map<String, Long> stacks) {
+        final String stack = parentStack.isEmpty() ? scope.frame() : parentStack + ";" + scope.frame();
+
+        final List<ElementInstance> children = new ArrayList<>(childrenByParent.getOrDefault(scope.key, List.of()));
+        children.sort(Comparator.comparingLong((ElementInstance child) -> child.endedAt)
+                .thenComparingLong(child -> child.activatedAt)
+                .reversed());
+
+        long cursor = scope.endedAt;
+        long childrenMillis = 0;
+        for (final ElementInstance child : children) {
+            if (child.endedAt <= cursor && child.activatedAt >= scope.activatedAt) {
+                foldCriticalPath(child, stack, childrenByParent, stacks);
+                childrenMillis += child.totalMillis();
+                cursor = child.activatedAt;
+            }
+        }
+
+        long selfMillis = scope.totalMillis() - childrenMillis;
+        if (scope.hasJob()) {
+            addStack(stacks, stack + ";job-pickup", scope.jobPickupMillis);
+            addStack(stacks, stack + ";job-handler", scope.jobHandlerMillis);
+            selfMillis -= scope.jobPickupMillis + scope.jobHandlerMillis;
+        }
+        addStack(stacks, stack, selfMillis);
+    }
+
+    private static void addStack(final Map<String, Long> stacks, final String stack, final long millis) {
+        if (millis > 0) {
+            stacks.merge(stack, millis, Long::sum);
+        }
+    }
+
+    private static final class ElementInstance {
+
+        private final long key;
+        private final long processInstanceKey;
+        private final String bpmnProcessId;
+        private final String elementId;
+        private final BpmnElementType elementType;
+        private final long parentKey;
+        private final long activatedAt;
+        private long endedAt = -1;
+        private boolean terminated;
+
+        private boolean job;
+        private long jobAvailableAt = -1;
+        private long jobActivatedAt = -1;
+        private long jobPickupMillis;
+        private long jobHandlerMillis;
+
+        private ElementInstance(final long key, final long processInstanceKey, final String bpmnProcessId,
+                                final String elementId, final BpmnElementType elementType, final long parentKey,
+                                final long activatedAt) {
+            this.key = key;
+            this.processInstanceKey = processInstanceKey;
+            this.bpmnProcessId = bpmnProcessId;
+            this.elementId = elementId;
+            this.elementType = elementType;
+            this.parentKey = parentKey;
+            this.activatedAt = activatedAt;
+        }
+
+        private void jobAvailable(final long timestamp) {
+            job = true;
+            if (jobAvailableAt < 0 && jobActivatedAt < 0) {
+                jobAvailableAt = timestamp;
+            }
+        }
+
+        private void jobActivated(final long timestamp) {
+            if (jobAvailableAt >= 0) {
+                jobPickupMillis += timestamp - jobAvailableAt;
+                jobAvailableAt = -1;
+            }
+            jobActivatedAt = timestamp;
+        }
+
+        private void jobEnded(final long timestamp) {
+            if (jobActivatedAt >= 0) {
+                jobHandlerMillis += timestamp - jobActivatedAt;
+                jobActivatedAt = -1;
+            }
+        }
+
+        private boolean hasJob() {
+            return job;
+        }
+
+        private boolean isEnded() {
+            return endedAt >= 0;
+        }
+
+        private long totalMillis() {
+            return endedAt - activatedAt;
+        }
+
+        private String frame() {
+            return elementType == BpmnElementType.MULTI_INSTANCE_BODY ? elementId + "#multi-instance" : elementId;
+        }
+
+        private ElementTiming timing() {
+            return new ElementTiming(key, bpmnProcessId, elementId, elementType,
+                    Duration.ofMillis(totalMillis()),
+                    Duration.ofMillis(jobPickupMillis),
+                    Duration.ofMillis(jobHandlerMillis),
+                    terminated);
+        }
+    }
+}
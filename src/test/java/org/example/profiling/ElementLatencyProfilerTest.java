@@ -0,0 +1,251 @@
+package org.example.profiling;
+
+import io.camunda.zeebe.protocol.record.ImmutableRecord;
+import io.camunda.zeebe.protocol.record.Record;
+import io.camunda.zeebe.protocol.record.RecordType;
+import io.camunda.zeebe.protocol.record.RecordValue;
+import io.camunda.zeebe.protocol.record.ValueType;
+import io.camunda.zeebe.protocol.record.intent.Intent;
+import io.camunda.zeebe.protocol.record.intent.JobBatchIntent;
+import io.camunda.zeebe.protocol.record.intent.JobIntent;
+import io.camunda.zeebe.protocol.record.intent.ProcessInstanceIntent;
+import io.camunda.zeebe.protocol.record.value.BpmnElementType;
+import io.camunda.zeebe.protocol.record.value.ImmutableJobBatchRecordValue;
+import io.camunda.zeebe.protocol.record.value.ImmutableJobRecordValue;
+import io.camunda.zeebe.protocol.record.value.ImmutableProcessInstanceRecordValue;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class ElementLatencyProfilerTest {
+
+    private static final String SIGN_UP = "sign-up";
+    private static final String AUTOMATED_TESTS = "automatedTestsProcess";
+
+    private final List<Record<?>> records = new ArrayList<>();
+
+    @Test
+    void shouldBreakDownDurationOfSignUpElements() {
+        // given
+        signUp(1, 0, 40);
+
+        // when
+        final var profiler = new ElementLatencyProfiler().recordAll(records);
+
+        // then
+        assertThat(profiler.timings(1))
+                .extracting(ElementLatencyProfiler.ElementTiming::elementId,
+                        timing -> timing.total().toMillis(),
+                        timing -> timing.jobPickup().toMillis(),
+                        timing -> timing.jobHandler().toMillis())
+                .containsExactly(
+                        tuple(SIGN_UP, 1000L, 0L, 0L),
+                        tuple("new-sign-up", 0L, 0L, 0L),
+                        tuple("create-account", 60L, 40L, 20L),
+                        tuple("send-activation-email", 40L, 5L, 35L),
+                        tuple("await-email-activation", 800L, 0L, 0L),
+                        tuple("message-email-confirmed", 0L, 0L, 0L),
+                        tuple("activate-account", 100L, 0L, 0L));
+    }
+
+    @Test
+    void shouldFoldCriticalPathOfSignUp() {
+        // given
+        signUp(1, 0, 40);
+
+        // when
+        final var criticalPath = new ElementLatencyProfiler().recordAll(records).criticalPath(1);
+
+        // then
+        assertThat(criticalPath).containsExactly(
+                entry("sign-up;activate-account", 100L),
+                entry("sign-up;await-email-activation", 800L),
+                entry("sign-up;create-account;job-handler", 20L),
+                entry("sign-up;create-account;job-pickup", 40L),
+                entry("sign-up;send-activation-email;job-handler", 35L),
+                entry("sign-up;send-activation-email;job-pickup", 5L));
+        assertThat(criticalPath.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(1000L);
+        assertThat(ElementLatencyProfiler.toFoldedStacks(criticalPath))
+                .startsWith("sign-up;activate-account 100\n");
+    }
+
+    @Test
+    void shouldFollowLongestBranchOfMultiInstance() {
+        // given
+        processInstance(AUTOMATED_TESTS, 10, 0, 300);
+        element(AUTOMATED_TESTS, 10, 11, 10, "Activity_1kq2g9a", BpmnElementType.MULTI_INSTANCE_BODY, 0, 300);
+        element(AUTOMATED_TESTS, 10, 12, 11, "Activity_1kq2g9a", BpmnElementType.SUB_PROCESS, 0, 100);
+        element(AUTOMATED_TESTS, 10, 13, 11, "Activity_1kq2g9a", BpmnElementType.SUB_PROCESS, 0, 300);
+        serviceTask(AUTOMATED_TESTS, 10, 14, 12, "runTests", 200, 0, 90, 100);
+        serviceTask(AUTOMATED_TESTS, 10, 15, 13, "runTests", 201, 0, 10, 300);
+
+        // when
+        final var profiler = new ElementLatencyProfiler().recordAll(records);
+
+        // then
+        assertThat(profiler.criticalPath(10)).containsExactly(
+                entry("automatedTestsProcess;Activity_1kq2g9a#multi-instance;Activity_1kq2g9a;runTests;job-handler", 290L),
+                entry("automatedTestsProcess;Activity_1kq2g9a#multi-instance;Activity_1kq2g9a;runTests;job-pickup", 10L));
+
+        final var pickup = profiler.histogram(AUTOMATED_TESTS, "runTests", ElementLatencyProfiler.Phase.JOB_PICKUP);
+        assertThat(pickup.count()).isEqualTo(2);
+        assertThat(pickup.max()).isEqualTo(Duration.ofMillis(90));
+    }
+
+    @Test
+    void shouldAggregateDurationsOfAllInstances() {
+        // given
+        for (int i = 0; i < 100; i++) {
+            // the pickup of create-account takes 1 ms for most instances, but 500 ms for one
+            signUp(1000L * (i + 1), 10_000L * i, i == 99 ? 500 : 1);
+        }
+
+        // when
+        final var profiler = new ElementLatencyProfiler().recordAll(records);
+
+        // then
+        final var pickup = profiler.histogram(SIGN_UP, "create-account", ElementLatencyProfiler.Phase.JOB_PICKUP);
+        assertThat(pickup.count()).isEqualTo(100);
+        assertThat(pickup.percentile(0.5)).isEqualTo(Duration.ofMillis(1));
+        assertThat(pickup.percentile(0.99)).isEqualTo(Duration.ofMillis(1));
+        assertThat(pickup.percentile(1.0)).isEqualTo(Duration.ofMillis(500));
+
+        assertThat(profiler.histogram(SIGN_UP, "await-email-activation", ElementLatencyProfiler.Phase.TOTAL).count())
+                .isEqualTo(100);
+        assertThat(profiler.report()).contains("sign-up/create-account [JOB_PICKUP]: count=100");
+        assertThat(profiler.criticalPaths(SIGN_UP)).containsEntry("sign-up;await-email-activation", 100 * 800L);
+    }
+
+    @Test
+    void shouldCountPickupOfRetriedJob() {
+        // given
+        processInstance(SIGN_UP, 1, 0, 100);
+        element(SIGN_UP, 1, 2, 1, "create-account", BpmnElementType.SERVICE_TASK, 0, -1);
+        job(JobIntent.CREATED, 100, 2, "create-account", 0, 3, 0);
+        jobBatch(100, 10);
+        // the first attempt fails after 20 ms and the job is activated again after another 30 ms
+        job(JobIntent.FAILED, 100, 2, "create-account", 30, 2, 0);
+        jobBatch(100, 60);
+        job(JobIntent.COMPLETED, 100, 2, "create-account", 90, 2, 0);
+        record(ProcessInstanceIntent.ELEMENT_COMPLETED, 2, processInstanceValue(SIGN_UP, 1, 1, "create-account",
+                BpmnElementType.SERVICE_TASK), 100);
+
+        // when
+        final var timings = new ElementLatencyProfiler().recordAll(records).timings(1);
+
+        // then
+        assertThat(timings).filteredOn(timing -> timing.elementId().equals("create-account"))
+                .singleElement()
+                .satisfies(timing -> {
+                    assertThat(timing.jobPickup()).isEqualTo(Duration.ofMillis(10 + 30));
+                    assertThat(timing.jobHandler()).isEqualTo(Duration.ofMillis(20 + 30));
+                });
+    }
+
+    // a sign-up that completes after 1 second, the email is confirmed after 900 ms
+    private void signUp(final long key, final long start, final long createAccountPickup) {
+        processInstance(SIGN_UP, key, start, start + 1000);
+        element(SIGN_UP, key, key + 1, key, "new-sign-up", BpmnElementType.START_EVENT, start, start);
+        serviceTask(SIGN_UP, key, key + 2, key, "create-account", key + 100,
+                start, start + createAccountPickup, start + 60);
+        serviceTask(SIGN_UP, key, key + 3, key, "send-activation-email", key + 101,
+                start + 60, start + 65, start + 100);
+        element(SIGN_UP, key, key + 4, key, "await-email-activation", BpmnElementType.EVENT_BASED_GATEWAY,
+                start + 100, start + 900);
+        element(SIGN_UP, key, key + 5, key, "message-email-confirmed", BpmnElementType.INTERMEDIATE_CATCH_EVENT,
+                start + 900, start + 900);
+        element(SIGN_UP, key, key + 6, key, "activate-account", BpmnElementType.SERVICE_TASK,
+                start + 900, start + 1000);
+    }
+
+    private void processInstance(final String processId, final long key, final long start, final long end) {
+        final var value = ImmutableProcessInstanceRecordValue.builder()
+                .withBpmnProcessId(processId)
+                .withProcessInstanceKey(key)
+                .withElementId(processId)
+                .withBpmnElementType(BpmnElementType.PROCESS)
+                .withFlowScopeKey(-1)
+                .withParentElementInstanceKey(-1)
+                .build();
+        record(ProcessInstanceIntent.ELEMENT_ACTIVATING, key, value, start);
+        record(ProcessInstanceIntent.ELEMENT_COMPLETED, key, value, end);
+    }
+
+    private void element(final String processId, final long processInstanceKey, final long key, final long flowScopeKey,
+                         final String elementId, final BpmnElementType type, final long start, final long end) {
+        final var value = processInstanceValue(processId, processInstanceKey, flowScopeKey, elementId, type);
+        record(ProcessInstanceIntent.ELEMENT_ACTIVATING, key, value, start);
+        if (end >= 0) {
+            record(ProcessInstanceIntent.ELEMENT_COMPLETED, key, value, end);
+        }
+    }
+
+    private void serviceTask(final String processId, final long processInstanceKey, final long key,
+                             final long flowScopeKey, final String elementId, final long jobKey,
+                             final long start, final long activated, final long end) {
+        final var value = processInstanceValue(processId, processInstanceKey, flowScopeKey, elementId,
+                BpmnElementType.SERVICE_TASK);
+        record(ProcessInstanceIntent.ELEMENT_ACTIVATING, key, value, start);
+        job(JobIntent.CREATED, jobKey, key, elementId, start, 3, 0);
+        jobBatch(jobKey, activated);
+        job(JobIntent.COMPLETED, jobKey, key, elementId, end, 3, 0);
+        record(ProcessInstanceIntent.ELEMENT_COMPLETED, key, value, end);
+    }
+
+    private static ImmutableProcessInstanceRecordValue processInstanceValue(
+            final String processId, final long processInstanceKey, final long flowScopeKey,
+            final String elementId, final BpmnElementType type) {
+        return ImmutableProcessInstanceRecordValue.builder()
+                .withBpmnProcessId(processId)
+                .withProcessInstanceKey(processInstanceKey)
+                .withElementId(elementId)
+                .withBpmnElementType(type)
+                .withFlowScopeKey(flowScopeKey)
+                .withParentElementInstanceKey(-1)
+                .build();
+    }
+
+    private void job(final JobIntent intent, final long jobKey, final long elementInstanceKey, final String elementId,
+                     final long timestamp, final int retries, final long retryBackoff) {
+        record(intent, jobKey, ImmutableJobRecordValue.builder()
+                .withType(elementId)
+                .withElementId(elementId)
+                .withElementInstanceKey(elementInstanceKey)
+                .withRetries(retries)
+                .withRetryBackoff(retryBackoff)
+                .build(), timestamp);
+    }
+
+    private void jobBatch(final long jobKey, final long timestamp) {
+        record(JobBatchIntent.ACTIVATED, -1, ImmutableJobBatchRecordValue.builder()
+                .addJobKeys(jobKey)
+                .build(), timestamp);
+    }
+
+    private <T extends RecordValue> void record(final Intent intent, final long key, final T value, final long timestamp) {
+        records.add(ImmutableRecord.<T>builder()
+                .withRecordType(RecordType.EVENT)
+                .withValueType(valueTypeOf(value))
+                .withIntent(intent)
+                .withKey(key)
+                .withTimestamp(timestamp)
+                .withValue(value)
+                .build());
+    }
+
+    private static ValueType valueTypeOf(final RecordValue value) {
+        if (value instanceof ImmutableJobRecordValue) {
+            return ValueType.JOB;
+        }
+        if (value instanceof ImmutableJobBatchRecordValue) {
+            return ValueType.JOB_BATCH;
+        }
+        return ValueType.PROCESS_INSTANCE;
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.profiling;
+
+import java.time.Duration;
+
+/**
+ * A histogram of durations with power-of-two millisecond buckets. The buckets are coarse, but the
+ * histogram has a fixed size, no matter how many samples it records, and two histograms can be
+ * merged by adding up their buckets.
+ */
+public class LatencyHistogram {
+
+    // bucket 0 holds 0 ms, bucket i holds [2^(i-1), 2^i) ms, the last bucket holds everything above
+    private static final int BUCKETS = 40;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long totalMillis;
+    private long maxMillis;
+
+    public void record(final Duration duration) {
+        record(duration.toMillis());
+    }
+
+    public void record(final long millis) {
+        final long value = Math.max(millis, 0);
+        counts[bucketOf(value)] += 1;
+        count += 1;
+        totalMillis += value;
+        maxMillis = Math.max(maxMillis, value);
+    }
+
+    public void merge(final LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        totalMillis += other.totalMillis;
+        maxMillis = Math.max(maxMillis, other.maxMillis);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public Duration total() {
+        return Duration.ofMillis(totalMillis);
+    }
+
+    public Duration mean() {
+        return count == 0 ? Duration.ZERO : Duration.ofMillis(totalMillis / count);
+    }
+
+    public Duration max() {
+        return Duration.ofMillis(maxMillis);
+    }
+
+    /**
+     * Returns the upper bound of the bucket that contains the given percentile, capped by the largest
+     * recorded value. For example, {@code percentile(0.99)} is the p99 latency.
+     */
+    public Duration percentile(final double percentile) {
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1 but was " + percentile);
+        }
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Duration.ofMillis(Math.min(upperBoundOf(i), maxMillis));
+            }
+        }
+        return max();
+    }
+
+    @Override
+    public String toString() {
+        return "count=%d, mean=%dms, p50=%dms, p99=%dms, max=%dms".formatted(
+                count, mean().toMillis(), percentile(0.5).toMillis(), percentile(0.99).toMillis(), maxMillis);
+    }
+
+    private static int bucketOf(final long millis) {
+        return Math.min(64 - Long.numberOfLeadingZeros(millis), BUCKETS - 1);
+    }
+
+    private static long upperBoundOf(final int bucket) {
+        return bucket == 0 ? 0 : (1L << bucket) - 1;
+    }
+}
@@ -0,0 +1,315 @@
+package org.example.stress;
+
+import org.example.account.AccountService;
+import org.example.account.AccountStatus;
+import org.example.account.CachedAccountService;
+import org.example.account.InMemoryAccountService;
+import org.example.lite.LiteEngine;
+import org.example.lite.LiteJob;
+import org.example.lite.LiteProcessTestContext;
+import org.example.model.Account;
+import org.example.model.AccountServiceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Races the email confirmations of many sign-ups against the timer of three days at the event-based
+ * gateway {@code await-email-activation}, while the jobs of both paths are handled on the shared
+ * {@link AccountService}, and races the activation against the deletion of the same account in the
+ * store.
+ *
+ * <p>The suite is tagged {@code stress} and runs only with {@code mvn test -Pstress}. The number of
+ * accounts can be raised with {@code -Dstress.accounts=100000}.
+ */
+@Tag("stress")
+public class SignUpRaceStressTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SignUpRaceStressTest.class);
+
+    private static final String PROCESS_RESOURCE_NAME = "bpmn/Sign-up process.bpmn";
+    private static final String PROCESS_ID = "sign-up";
+    private static final String MESSAGE_NAME = "backend:email-confirmed";
+    private static final Duration TIMER_DURATION = Duration.ofDays(3);
+
+    private static final int ACCOUNTS = Integer.getInteger("stress.accounts", 2_000);
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    // the other threads trigger the timers and handle the account jobs
+    private static final int SENDERS = THREADS / 2;
+    private static final int JOBS_PER_POLL = 32;
+
+    private final LiteEngine engine = new LiteEngine();
+    private final LiteProcessTestContext processTestContext = new LiteProcessTestContext(engine);
+    private final ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void shutdownThreads() {
+        threads.shutdownNow();
+    }
+
+    @Test
+    void shouldHaveExactlyOneOutcomeForConfirmationsRacingTheTimers() throws Exception {
+        // given
+        final AccountService accounts = new CachedAccountService(new InMemoryAccountService(), ACCOUNTS / 10);
+        final AtomicInteger accountNumbers = new AtomicInteger();
+
+        engine.deploy(PROCESS_RESOURCE_NAME);
+        processTestContext.mockJobWorker("accounts:create").withHandler((worker, job) -> {
+            final var account = new Account("account-id-" + accountNumbers.incrementAndGet(), "Demo",
+                    "demo@camunda.com", true, "activation-code");
+            accounts.create(account);
+            worker.completeJob(job.getKey(), Map.of("account", account));
+        });
+        processTestContext.mockJobWorker("io.camunda:sendgrid:1").thenComplete();
+        processTestContext.mockJobWorker("backend:confirm-account").thenComplete();
+        processTestContext.mockJobWorker("subscriptions:subscribe").thenComplete();
+        // accounts:activate and accounts:delete are handled concurrently, outside the engine
+
+        final List<Long> processInstanceKeys = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            processInstanceKeys.add(engine.createProcessInstance(PROCESS_ID, Map.of("signUpForm", Map.of(
+                    "userName", "Demo", "email", "demo@camunda.com", "subscribeToNewsletter", true))));
+        }
+        processTestContext.increaseTime(TIMER_DURATION.minusMillis(1));
+
+        // when
+        // each account is confirmed twice (e.g. the link was clicked twice) in random order, while
+        // the clock thread triggers the due timers one by one, and the workers handle the jobs of
+        // accounts:activate and accounts:delete on the shared account store
+        final List<Integer> confirmations = new ArrayList<>();
+        for (int i = 1; i <= ACCOUNTS; i++) {
+            confirmations.add(i);
+            confirmations.add(i);
+        }
+        Collections.shuffle(confirmations);
+
+        final AtomicIntegerArray correlatedConfirmations = new AtomicIntegerArray(ACCOUNTS + 1);
+        final LongAdder confirmationsWhileTimersFire = new LongAdder();
+        final AtomicBoolean timersFiring = new AtomicBoolean();
+        final AtomicBoolean raceOver = new AtomicBoolean();
+        final StoreContention contention = new StoreContention();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        final List<Future<?>> racers = new ArrayList<>();
+        racers.add(threads.submit(() -> {
+            start.await();
+            timersFiring.set(true);
+            processTestContext.increaseTime(Duration.ofMillis(1));
+            timersFiring.set(false);
+            return null;
+        }));
+        for (int thread = 0; thread < SENDERS; thread++) {
+            final int offset = thread;
+            racers.add(threads.submit(() -> {
+                start.await();
+                for (int i = offset; i < confirmations.size(); i += SENDERS) {
+                    final int accountNumber = confirmations.get(i);
+                    final boolean whileTimersFire = timersFiring.get();
+                    final List<Long> correlated = engine.publishMessage(
+                            MESSAGE_NAME, "account-id-" + accountNumber, Map.of(), Duration.ZERO);
+                    correlatedConfirmations.addAndGet(accountNumber, correlated.size());
+                    if (whileTimersFire && timersFiring.get()) {
+                        confirmationsWhileTimersFire.increment();
+                    }
+                }
+                return null;
+            }));
+        }
+        final List<Future<?>> workers = new ArrayList<>();
+        for (int thread = 0; thread < THREADS - SENDERS - 1; thread++) {
+            workers.add(threads.submit(() -> {
+                start.await();
+                handleAccountJobs(accounts, contention, raceOver);
+                return null;
+            }));
+        }
+
+        final long startTime = System.nanoTime();
+        start.countDown();
+        for (final Future<?> racer : racers) {
+            racer.get(1, TimeUnit.MINUTES);
+        }
+        raceOver.set(true);
+        for (final Future<?> worker : workers) {
+            worker.get(1, TimeUnit.MINUTES);
+        }
+        contention.elapsed = Duration.ofNanos(System.nanoTime() - startTime);
+
+        // then
+        assertThat(engine.incidents()).isEmpty();
+        // an account whose process took both paths would be activated and deleted in the store
+        assertThat(contention.failedTransitions.sum()).isZero();
+
+        int created = 0;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            final LiteEngine.ProcessInstance processInstance = engine.processInstance(processInstanceKeys.get(i));
+            final String accountId = (String) ((Map<?, ?>) processInstance.getVariables().get("account")).get("id");
+            final int accountNumber = Integer.parseInt(accountId.substring("account-id-".length()));
+            final List<String> completedEndEvents = processInstance.getHistory().stream()
+                    .filter(element -> element.state() == LiteEngine.State.COMPLETED)
+                    .map(LiteEngine.ElementRecord::elementId)
+                    .filter(elementId -> elementId.equals("account-created") || elementId.equals("account-deleted"))
+                    .toList();
+
+            assertThat(processInstance.getState()).isEqualTo(LiteEngine.State.COMPLETED);
+
+            // the first confirmation wins against the timer, or the timer wins against both
+            assertThat(correlatedConfirmations.get(accountNumber))
+                    .describedAs("correlated confirmations of %s", accountId)
+                    .isBetween(0, 1);
+            if (correlatedConfirmations.get(accountNumber) == 1) {
+                created += 1;
+                assertThat(completedEndEvents).containsExactly("account-created");
+                assertThat(accounts.status(accountId)).contains(AccountStatus.ACTIVE);
+                assertThat(accounts.find(accountId)).isPresent();
+            } else {
+                assertThat(completedEndEvents).containsExactly("account-deleted");
+                assertThat(accounts.status(accountId)).contains(AccountStatus.DELETED);
+                assertThat(accounts.find(accountId)).isEmpty();
+            }
+        }
+
+        LOG.info("{} sign-ups racing the timers: {} created, {} deleted, {} confirmations while the timers fired, {}",
+                ACCOUNTS, created, ACCOUNTS - created, confirmationsWhileTimersFire.sum(), contention);
+        // the confirmations and the timers interleaved, otherwise one side would win every race
+        assertThat(created).isStrictlyBetween(0, ACCOUNTS);
+        assertThat(confirmationsWhileTimersFire.sum()).isPositive();
+    }
+
+    @Test
+    void shouldActivateOrDeleteEachAccountExactlyOnceUnderContention() throws Exception {
+        // given
+        final var accounts = new CachedAccountService(new InMemoryAccountService(), ACCOUNTS / 10);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.create(new Account("account-id-" + i, "Demo", "demo@camunda.com", false, "activation-code"));
+        }
+
+        // when
+        // the activation and the deletion of the same account are submitted back to back, so they
+        // run on different threads at the same time, while other threads read the accounts
+        final AtomicIntegerArray successfulTransitions = new AtomicIntegerArray(ACCOUNTS);
+        final LongAdder rejectedTransitions = new LongAdder();
+        final LongAdder reads = new LongAdder();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> tasks = new ArrayList<>();
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            final int accountNumber = i;
+            final String accountId = "account-id-" + i;
+            for (final boolean activate : new boolean[] {i % 2 == 0, i % 2 != 0}) {
+                tasks.add(threads.submit(() -> {
+                    start.await();
+                    accounts.find(accountId);
+                    reads.increment();
+                    try {
+                        if (activate) {
+                            accounts.activate(accountId);
+                        } else {
+                            accounts.delete(accountId);
+                        }
+                        successfulTransitions.incrementAndGet(accountNumber);
+                    } catch (final AccountServiceException e) {
+                        rejectedTransitions.increment();
+                    }
+                    return null;
+                }));
+            }
+        }
+
+        final long startTime = System.nanoTime();
+        start.countDown();
+        for (final Future<?> task : tasks) {
+            task.get(1, TimeUnit.MINUTES);
+        }
+        final Duration elapsed = Duration.ofNanos(System.nanoTime() - startTime);
+
+        // then
+        int deleted = 0;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            final String accountId = "account-id-" + i;
+            assertThat(successfulTransitions.get(i)).describedAs("transitions of %s", accountId).isEqualTo(1);
+
+            final AccountStatus status = accounts.status(accountId).orElseThrow();
+            assertThat(status).isIn(AccountStatus.ACTIVE, AccountStatus.DELETED);
+            // no stale account in the cache after the deletion
+            assertThat(accounts.find(accountId).isPresent()).isEqualTo(status == AccountStatus.ACTIVE);
+            if (status == AccountStatus.DELETED) {
+                deleted += 1;
+            }
+        }
+        assertThat(rejectedTransitions.sum()).isEqualTo(ACCOUNTS);
+
+        LOG.info("{} accounts on {} threads: {} activated, {} deleted, {} reads (cache hits: {}) in {} ms",
+                ACCOUNTS, THREADS, ACCOUNTS - deleted, deleted, reads.sum(), accounts.cache().hits(),
+                elapsed.toMillis());
+    }
+
+    /**
+     * Activates the jobs of {@code accounts:activate} and {@code accounts:delete} and handles them,
+     * like a job worker on one of several nodes that share the account store, until the race is over
+     * and no jobs are left.
+     */
+    private void handleAccountJobs(
+            final AccountService accounts, final StoreContention contention, final AtomicBoolean raceOver) {
+        while (true) {
+            final boolean lastPoll = raceOver.get();
+            final List<LiteJob> jobs = new ArrayList<>();
+            jobs.addAll(engine.activateJobs("accounts:activate", JOBS_PER_POLL));
+            jobs.addAll(engine.activateJobs("accounts:delete", JOBS_PER_POLL));
+            if (jobs.isEmpty()) {
+                if (lastPoll) {
+                    return;
+                }
+                Thread.onSpinWait();
+            }
+
+            for (final LiteJob job : jobs) {
+                final String accountId = (String) ((Map<?, ?>) job.getVariable("account")).get("id");
+                try {
+                    if (job.getType().equals("accounts:activate")) {
+                        accounts.activate(accountId);
+                    } else {
+                        accounts.delete(accountId);
+                    }
+                    engine.completeJob(job.getKey(), Map.of());
+                } catch (final AccountServiceException e) {
+                    contention.failedTransitions.increment();
+                    engine.failJob(job.getKey(), 0, e.getMessage());
+                }
+                contention.jobs.increment();
+            }
+        }
+    }
+
+    private static final class StoreContention {
+
+        private final LongAdder failedTransitions = new LongAdder();
+        private final LongAdder jobs = new LongAdder();
+        private Duration elapsed;
+
+        @Override
+        public String toString() {
+            return "%d account jobs on %d threads in %d ms, %d failed transitions"
+                    .formatted(jobs.sum(), THREADS, elapsed.toMillis(), failedTransitions.sum());
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package org.example.worker;
+
+import io.camunda.client.api.response.ActivatedJob;
+import io.camunda.client.api.worker.JobClient;
+import io.camunda.client.api.worker.JobHandler;
+import io.camunda.client.api.worker.JobWorker;
+import io.camunda.client.api.worker.JobWorkerMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class AdaptiveJobWorkerTest {
+
+    private static final Duration ACTIVATION_ROUND_TRIP = Duration.ofMillis(20);
+
+    private final List<WorkerTuning> openedTunings = new ArrayList<>();
+    private final List<JobWorker> openedWorkers = new ArrayList<>();
+    private JobHandler measuredHandler;
+    private JobWorkerMetrics metrics;
+
+    @Test
+    void shouldPrefetchManyJobsForFastHandler() {
+        // given
+        final var tuner = new WorkerTuner(4, 512, ACTIVATION_ROUND_TRIP);
+
+        // when
+        // e.g. backend:confirm-account, which takes about 50 microseconds
+        handleJobs(tuner, 1_000, Duration.ofNanos(50_000), 200);
+        final WorkerTuning tuning = tuner.tune();
+
+        // then
+        assertThat(tuning.maxJobsActive()).isEqualTo(512);
+        assertThat(tuning.pollInterval()).isEqualTo(WorkerTuner.BUSY_POLL_INTERVAL);
+        assertThat(tuning.requestTimeout()).isEqualTo(WorkerTuner.DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    @Test
+    void shouldActivateFewJobsForSlowHandler() {
+        // given
+        final var tuner = new WorkerTuner(4, 512, ACTIVATION_ROUND_TRIP);
+
+        // when
+        // e.g. io.camunda:sendgrid:1, which takes about 2 seconds
+        handleJobs(tuner, 20, Duration.ofSeconds(2), 0);
+        final WorkerTuning tuning = tuner.tune();
+
+        // then
+        // the remaining 30% of the jobs cover the 4 handler threads and 1 prefetched job
+        assertThat(tuning.maxJobsActive()).isEqualTo(17);
+        assertThat(tuning.pollInterval()).isEqualTo(WorkerTuner.DEFAULT_POLL_INTERVAL);
+        // the last of the 17 jobs waits until 4 threads handled the 16 jobs before it
+        assertThat(tuning.jobTimeout()).isGreaterThanOrEqualTo(Duration.ofSeconds(17 * 2 / 4));
+    }
+
+    @Test
+    void shouldLongPollWhenNoJobsArrive() {
+        // given
+        final var tuner = new WorkerTuner(1, 100, ACTIVATION_ROUND_TRIP);
+        handleJobs(tuner, 10, Duration.ofMillis(5), 0);
+        tuner.tune();
+
+        // when
+        final List<Duration> requestTimeouts = new ArrayList<>();
+        for (int tick = 0; tick < WorkerTuner.LONG_POLL_SWITCH_TUNINGS; tick++) {
+            requestTimeouts.add(tuner.tune().requestTimeout());
+        }
+
+        // then
+        // the worker switches to long polling only if no jobs arrive in a few tunings in a row
+        assertThat(requestTimeouts.subList(0, WorkerTuner.LONG_POLL_SWITCH_TUNINGS - 1))
+                .containsOnly(WorkerTuner.DEFAULT_REQUEST_TIMEOUT);
+        assertThat(tuner.current().requestTimeout()).isEqualTo(WorkerTuner.LONG_POLL_REQUEST_TIMEOUT);
+        assertThat(tuner.current().pollInterval()).isEqualTo(WorkerTuner.DEFAULT_POLL_INTERVAL);
+    }
+
+    @Test
+    void shouldNotReopenWorkerIfJobsArriveSporadically() {
+        // given
+        final var tuner = new WorkerTuner(1, 100, ACTIVATION_ROUND_TRIP);
+        final var worker = new AdaptiveJobWorker("accounts:delete", (client, job) -> {}, tuner, this::open);
+        handleJobs(tuner, 10, Duration.ofMillis(5), 0);
+        worker.tune();
+        final int openedWorkersBefore = openedWorkers.size();
+
+        // when
+        final List<Duration> requestTimeouts = new ArrayList<>();
+        for (int tick = 0; tick < 20; tick++) {
+            // a job arrives at every other tuning
+            if (tick % 2 == 0) {
+                handleJobs(tuner, 1, Duration.ofMillis(5), 0);
+            }
+            worker.tune();
+            requestTimeouts.add(worker.tuning().requestTimeout());
+        }
+
+        // then
+        assertThat(requestTimeouts).containsOnly(WorkerTuner.DEFAULT_REQUEST_TIMEOUT);
+        assertThat(openedWorkers).hasSize(openedWorkersBefore);
+    }
+
+    @Test
+    void shouldKeepLongPollingIfJobsArriveSporadically() {
+        // given
+        final var tuner = new WorkerTuner(1, 100, ACTIVATION_ROUND_TRIP);
+        handleJobs(tuner, 10, Duration.ofMillis(5), 0);
+        for (int tick = 0; tick <= WorkerTuner.LONG_POLL_SWITCH_TUNINGS; tick++) {
+            tuner.tune();
+        }
+
+        // when
+        final List<Duration> requestTimeouts = new ArrayList<>();
+        for (int tick = 0; tick < 20; tick++) {
+            // a job arrives at every other tuning
+            if (tick % 2 == 0) {
+                handleJobs(tuner, 1, Duration.ofMillis(5), 0);
+            }
+            requestTimeouts.add(tuner.tune().requestTimeout());
+        }
+
+        // then
+        assertThat(requestTimeouts).containsOnly(WorkerTuner.LONG_POLL_REQUEST_TIMEOUT);
+    }
+
+    @Test
+    void shouldReopenWorkerOnlyIfSettingsChangeSignificantly() throws Exception {
+        // given
+        final var tuner = new WorkerTuner(4, 512, ACTIVATION_ROUND_TRIP);
+        final var worker = new AdaptiveJobWorker("backend:confirm-account", (client, job) -> {}, tuner, this::open);
+        final JobWorker initialWorker = openedWorkers.get(0);
+
+        // when
+        metrics.jobActivated(32);
+        for (int i = 0; i < 32; i++) {
+            measuredHandler.handle(mock(JobClient.class), mock(ActivatedJob.class));
+        }
+        final boolean reopened = worker.tune();
+
+        metrics.jobActivated(32);
+        for (int i = 0; i < 32; i++) {
+            measuredHandler.handle(mock(JobClient.class), mock(ActivatedJob.class));
+        }
+        final boolean reopenedAgain = worker.tune();
+
+        // then
+        assertThat(reopened).isTrue();
+        assertThat(reopenedAgain).isFalse();
+        assertThat(openedTunings).hasSize(2);
+        assertThat(openedTunings.get(1).maxJobsActive()).isEqualTo(512);
+        assertThat(worker.tuning()).isEqualTo(openedTunings.get(1));
+        verify(initialWorker).close();
+
+        worker.close();
+        verify(openedWorkers.get(1)).close();
+    }
+
+    @Test
+    void shouldNotReopenClosedWorker() {
+        // given
+        final var tuner = new WorkerTuner(1, 100, ACTIVATION_ROUND_TRIP);
+        final var worker = new AdaptiveJobWorker("accounts:create", (client, job) -> {}, tuner, this::open);
+        worker.close();
+
+        // when
+        handleJobs(tuner, 10, Duration.ofMillis(1), 10);
+        final boolean reopened = worker.tune();
+
+        // then
+        assertThat(reopened).isFalse();
+        assertThat(openedWorkers).hasSize(1);
+        // the settings changed, but the closed worker is not replaced
+        assertThat(tuner.tune().differsSignificantlyFrom(openedTunings.get(0))).isTrue();
+    }
+
+    @Test
+    void shouldNotReopenWorkerIfQueueDepthHoversAroundOneJob() {
+        // given
+        final var tuner = new WorkerTuner(4, 512, ACTIVATION_ROUND_TRIP);
+        final var worker = new AdaptiveJobWorker("backend:confirm-account", (client, job) -> {}, tuner, this::open);
+        handleJobs(tuner, 100, Duration.ofMillis(1), 0);
+        worker.tune();
+        final int openedWorkersBefore = openedWorkers.size();
+
+        // when
+        final List<Boolean> reopened = new ArrayList<>();
+        for (int tick = 0; tick < 20; tick++) {
+            // a job is left in the queue at every other tuning
+            handleJobs(tuner, 100, Duration.ofMillis(1), tick % 2);
+            reopened.add(worker.tune());
+            drainQueue(tuner);
+        }
+
+        // then
+        assertThat(reopened).containsOnly(false);
+        assertThat(openedWorkers).hasSize(openedWorkersBefore);
+        assertThat(worker.tuning().pollInterval()).isEqualTo(WorkerTuner.DEFAULT_POLL_INTERVAL);
+    }
+
+    @Test
+    void shouldKeepBusyPollIntervalUntilAverageQueueDepthDrops() {
+        // given
+        final var tuner = new WorkerTuner(4, 512, ACTIVATION_ROUND_TRIP);
+        handleJobs(tuner, 100, Duration.ofMillis(1), 10);
+        final WorkerTuning busyTuning = tuner.tune();
+        drainQueue(tuner);
+
+        // when
+        final List<Duration> pollIntervals = new ArrayList<>();
+        for (int tick = 0; tick < 10; tick++) {
+            handleJobs(tuner, 100, Duration.ofMillis(1), 0);
+            pollIntervals.add(tuner.tune().pollInterval());
+        }
+
+        // then
+        // the queue is empty, but the worker stays busy until the average queue depth drops
+        assertThat(busyTuning.pollInterval()).isEqualTo(WorkerTuner.BUSY_POLL_INTERVAL);
+        assertThat(pollIntervals.subList(0, 3)).containsOnly(WorkerTuner.BUSY_POLL_INTERVAL);
+        assertThat(pollIntervals.get(pollIntervals.size() - 1)).isEqualTo(WorkerTuner.DEFAULT_POLL_INTERVAL);
+    }
+
+    private static void drainQueue(final WorkerTuner tuner) {
+        while (tuner.queueDepth() > 0) {
+            tuner.jobStarted();
+            tuner.jobHandled(Duration.ofMillis(1).toNanos());
+        }
+    }
+
+    private static void handleJobs(final WorkerTuner tuner, final int jobs, final Duration latency,
+                                   final int remainingQueueDepth) {
+        tuner.jobsActivated(jobs + remainingQueueDepth);
+        for (int i = 0; i < jobs; i++) {
+            tuner.jobStarted();
+            tuner.jobHandled(latency.toNanos());
+        }
+    }
+
+    private JobWorker open(final WorkerTuning tuning, final JobHandler handler, final JobWorkerMetrics metrics) {
+        final JobWorker worker = mock(JobWorker.class);
+        openedTunings.add(tuning);
+        openedWorkers.add(worker);
+        measuredHandler = handler;
+        this.metrics = metrics;
+        return worker;
+    }
+}
@@ -0,0 +1,202 @@
+package org.example.worker;
+
+import io.camunda.client.api.response.ActivatedJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IdempotencyCacheTest {
+
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    private final Clock clock = mock(Clock.class);
+    private final AtomicInteger invocations = new AtomicInteger();
+    private final JobResultHandler createAccount = job -> {
+        invocations.incrementAndGet();
+        return Map.of("account", Map.of("id", "account-" + job.getKey()));
+    };
+
+    @BeforeEach
+    void setClock() {
+        when(clock.millis()).thenReturn(0L);
+    }
+
+    @Test
+    void shouldCompleteDuplicateDeliveryFromCache() throws Exception {
+        // given
+        final var cache = new IdempotencyCache(10, TIME_TO_LIVE, clock);
+        final var job = job(1L, 10L);
+
+        // when
+        final var firstResult = cache.computeIfAbsent(job, createAccount);
+        final var secondResult = cache.computeIfAbsent(job, createAccount);
+
+        // then
+        assertThat(secondResult).isEqualTo(firstResult);
+        assertThat(invocations).hasValue(1);
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldHandleJobAgainAfterTimeToLive() throws Exception {
+        // given
+        final var cache = new IdempotencyCache(10, TIME_TO_LIVE, clock);
+        final var job = job(1L, 10L);
+        cache.computeIfAbsent(job, createAccount);
+
+        // when
+        when(clock.millis()).thenReturn(TIME_TO_LIVE.toMillis());
+        cache.computeIfAbsent(job, createAccount);
+
+        // then
+        assertThat(invocations).hasValue(2);
+    }
+
+    @Test
+    void shouldEvictOldestResultWhenFull() throws Exception {
+        // given
+        final var cache = new IdempotencyCache(2, TIME_TO_LIVE, clock);
+
+        // when
+        cache.computeIfAbsent(job(1L, 10L), createAccount);
+        cache.computeIfAbsent(job(2L, 20L), createAccount);
+        cache.computeIfAbsent(job(3L, 30L), createAccount);
+        cache.computeIfAbsent(job(1L, 10L), createAccount);
+
+        // then
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(invocations).hasValue(4);
+    }
+
+    @Test
+    void shouldNotCacheFailedHandler() throws Exception {
+        // given
+        final var cache = new IdempotencyCache(10, TIME_TO_LIVE, clock);
+        final var job = job(1L, 10L);
+
+        // when
+        assertThatThrownBy(() -> cache.computeIfAbsent(job, failedJob -> {
+            throw new IllegalStateException("store not available");
+        })).hasMessage("store not available");
+
+        cache.computeIfAbsent(job, createAccount);
+
+        // then
+        assertThat(invocations).hasValue(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFailDuplicateDeliveryAfterDeadlineIfFirstDeliveryHangs() throws Exception {
+        // given
+        final var cache = new IdempotencyCache(10, TIME_TO_LIVE, clock);
+        final var handlerStarted = new CountDownLatch(1);
+        final var releaseHandler = new CountDownLatch(1);
+        final var firstDelivery = CompletableFuture.runAsync(() -> {
+            try {
+                cache.computeIfAbsent(job(1L, 10L), job -> {
+                    handlerStarted.countDown();
+                    releaseHandler.await();
+                    return Map.of();
+                });
+            } catch (final Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        handlerStarted.await();
+
+        // when
+        final ActivatedJob redelivery = job(1L, 10L);
+        when(redelivery.getDeadline()).thenReturn(50L);
+
+        // then
+        assertThatThrownBy(() -> cache.computeIfAbsent(redelivery, createAccount))
+                .isInstanceOf(TimeoutException.class);
+        assertThat(invocations).hasValue(0);
+
+        releaseHandler.countDown();
+        firstDelivery.join();
+    }
+
+    @Test
+    void shouldNotEvictRunningHandlerWhenFull() throws Exception {
+        // given
+        final var cache = new IdempotencyCache(2, TIME_TO_LIVE, clock);
+        final var handlerStarted = new CountDownLatch(1);
+        final var releaseHandler = new CountDownLatch(1);
+        final var firstDelivery = CompletableFuture.supplyAsync(() -> {
+            try {
+                return cache.computeIfAbsent(job(1L, 10L), job -> {
+                    handlerStarted.countDown();
+                    releaseHandler.await();
+                    return createAccount.handle(job);
+                });
+            } catch (final Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        handlerStarted.await();
+
+        // when
+        cache.computeIfAbsent(job(2L, 20L), createAccount);
+        cache.computeIfAbsent(job(3L, 30L), createAccount);
+        cache.computeIfAbsent(job(4L, 40L), createAccount);
+        when(clock.millis()).thenReturn(TIME_TO_LIVE.toMillis());
+
+        final ActivatedJob redelivery = job(1L, 10L);
+        when(redelivery.getDeadline()).thenReturn(TIME_TO_LIVE.toMillis() + 60_000L);
+        final var secondDelivery = CompletableFuture.supplyAsync(() -> {
+            try {
+                return cache.computeIfAbsent(redelivery, createAccount);
+            } catch (final Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        releaseHandler.countDown();
+
+        // then
+        assertThat(secondDelivery.join()).isEqualTo(firstDelivery.join());
+        assertThat(invocations).hasValue(4);
+        assertThat(cache.hits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldStartTimeToLiveWhenHandlerCompletes() throws Exception {
+        // given
+        final var cache = new IdempotencyCache(10, TIME_TO_LIVE, clock);
+        final var job = job(1L, 10L);
+        cache.computeIfAbsent(job, handledJob -> {
+            // the handler takes longer than the time-to-live
+            when(clock.millis()).thenReturn(TIME_TO_LIVE.toMillis());
+            return createAccount.handle(handledJob);
+        });
+
+        // when
+        when(clock.millis()).thenReturn(2 * TIME_TO_LIVE.toMillis() - 1);
+        cache.computeIfAbsent(job, createAccount);
+
+        // then
+        assertThat(invocations).hasValue(1);
+        assertThat(cache.hits()).isEqualTo(1);
+    }
+
+    private static ActivatedJob job(final long jobKey, final long elementInstanceKey) {
+        final ActivatedJob job = mock(ActivatedJob.class);
+        when(job.getKey()).thenReturn(jobKey);
+        when(job.getElementInstanceKey()).thenReturn(elementInstanceKey);
+        return job;
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.worker;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.account.AccountService;
+import org.example.account.AccountStatus;
+import org.example.model.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the handlers of {@code accounts:create} and {@code subscriptions:subscribe} written
+ * against the regular job handler model (variables as a map, result as a map that is serialized
+ * for the command) with the {@link PooledJobHandler pooled handlers}. Both handlers of {@code
+ * accounts:create} create the account in the same store, so both include its allocation.
+ *
+ * <p>Run it with the main method. The GC profiler reports the allocation per operation as {@code
+ * gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JobHandlerBenchmark {
+
+    static final String CREATE_ACCOUNT_VARIABLES = """
+            {"signUpForm": {"userName": "Demo", "email": "demo@camunda.com", "subscribeToNewsletter": true}}""";
+    static final String SUBSCRIBE_VARIABLES = """
+            {"account": {"id": "account-id-0001", "userName": "Demo", "email": "demo@camunda.com", \
+            "subscribeToNewsletter": true, "activationCode": "activation-code-0001"}}""";
+
+    private final MapBasedHandlers mapBasedHandlers = new MapBasedHandlers(new DiscardingAccountService());
+
+    private final JobView job = new JobView();
+    private final CompletionBuilder completion = new CompletionBuilder();
+    private long elementInstanceKey;
+    private final CreateAccountJobHandler createAccountHandler =
+            new CreateAccountJobHandler(new DiscardingAccountService());
+    private final SubscribeJobHandler subscribeHandler =
+            new SubscribeJobHandler(new DiscardingAccountService(), (accountId, email) -> {});
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JobHandlerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    @Benchmark
+    public String createAccountWithMap() throws Exception {
+        return mapBasedHandlers.createAccount(++elementInstanceKey, CREATE_ACCOUNT_VARIABLES);
+    }
+
+    @Benchmark
+    public void createAccountPooled(final Blackhole blackhole) throws Exception {
+        job.wrap(1, ++elementInstanceKey, CreateAccountJobHandler.JOB_TYPE, 3, CREATE_ACCOUNT_VARIABLES);
+        createAccountHandler.handle(job, completion.reset());
+        // the command needs the variables as a string
+        blackhole.consume(completion.variables().toString());
+    }
+
+    @Benchmark
+    public void subscribeWithMap(final Blackhole blackhole) throws Exception {
+        blackhole.consume(mapBasedHandlers.subscribe(SUBSCRIBE_VARIABLES));
+    }
+
+    @Benchmark
+    public void subscribePooled(final Blackhole blackhole) throws Exception {
+        job.wrap(1, 1, SubscribeJobHandler.JOB_TYPE, 3, SUBSCRIBE_VARIABLES);
+        subscribeHandler.handle(job, completion.reset());
+        blackhole.consume(completion.variables().toString());
+    }
+
+    /**
+     * The same handlers in the regular model: the client parses the variables into a map for {@code
+     * job.getVariablesAsMap()} and serializes the result map for {@code command.variables(map)}.
+     */
+    static final class MapBasedHandlers {
+
+        private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final AccountService accounts;
+
+        MapBasedHandlers(final AccountService accounts) {
+            this.accounts = accounts;
+        }
+
+        String createAccount(final long elementInstanceKey, final String variablesJson) throws Exception {
+            final Map<String, Object> variables = objectMapper.readValue(variablesJson, MAP_TYPE);
+            @SuppressWarnings("unchecked")
+            final Map<String, Object> signUpForm = (Map<String, Object>) variables.get("signUpForm");
+
+            final var account = new Account(
+                    "account-id-" + elementInstanceKey,
+                    (String) signUpForm.get("userName"),
+                    (String) signUpForm.get("email"),
+                    (Boolean) signUpForm.get("subscribeToNewsletter"),
+                    Long.toHexString(ThreadLocalRandom.current().nextLong()));
+            accounts.create(account);
+
+            return objectMapper.writeValueAsString(Map.of("account", Map.of(
+                    "id", account.id(),
+                    "userName", account.userName(),
+                    "email", account.email(),
+                    "subscribeToNewsletter", account.subscribeToNewsletter(),
+                    "activationCode", account.activationCode())));
+        }
+
+        String subscribe(final String variablesJson) throws Exception {
+            final Map<String, Object> variables = objectMapper.readValue(variablesJson, MAP_TYPE);
+            @SuppressWarnings("unchecked")
+            final Map<String, Object> account = (Map<String, Object>) variables.get("account");
+            return account.get("id") + " " + account.get("email");
+        }
+    }
+
+    /** An account store that doesn't keep the accounts, so the benchmark measures only the handlers. */
+    static final class DiscardingAccountService implements AccountService {
+
+        @Override
+        public void create(final Account account) {}
+
+        @Override
+        public Optional<Account> find(final String accountId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<AccountStatus> status(final String accountId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void activate(final String accountId) {}
+
+        @Override
+        public void delete(final String accountId) {}
+    }
+}
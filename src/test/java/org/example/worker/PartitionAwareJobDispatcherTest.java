@@ -0,0 +1,202 @@
+package org.example.worker;
+
+import io.camunda.client.api.response.ActivatedJob;
+import io.camunda.client.api.worker.JobClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PartitionAwareJobDispatcherTest {
+
+    private final JobClient jobClient = mock(JobClient.class, RETURNS_DEEP_STUBS);
+    private final CountDownLatch releaseHandlers = new CountDownLatch(1);
+    private final List<Long> handledJobs = new CopyOnWriteArrayList<>();
+
+    private PartitionAwareJobDispatcher dispatcher;
+
+    @AfterEach
+    void closeDispatcher() {
+        releaseHandlers.countDown();
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    @Test
+    void shouldDecodePartitionFromKey() {
+        assertThat(PartitionAwareJobDispatcher.partitionOf(key(1, 5))).isEqualTo(1);
+        assertThat(PartitionAwareJobDispatcher.partitionOf(key(3, 42))).isEqualTo(3);
+    }
+
+    @Test
+    void shouldHandleJobsOfOtherPartitionWhileOnePartitionIsBusy() {
+        // given
+        dispatcher = new PartitionAwareJobDispatcher(this::blockingHandler, 2, 1, 100, 100);
+
+        for (int i = 0; i < 10; i++) {
+            dispatcher.handle(jobClient, job(key(1, i)));
+        }
+
+        // when
+        dispatcher.handle(jobClient, job(key(2, 0)));
+
+        // then
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(handledJobs).contains(key(2, 0)));
+
+        assertThat(handledJobs).containsExactlyInAnyOrder(key(1, 0), key(2, 0));
+        assertThat(dispatcher.queuedJobs(1)).isEqualTo(9);
+    }
+
+    @Test
+    void shouldPassOnJobsOfOtherPartitionsWhilePartitionQueueIsFull() {
+        // given
+        dispatcher = new PartitionAwareJobDispatcher(this::blockingHandler, 2, 1, 1, 10);
+
+        dispatcher.handle(jobClient, job(key(1, 0)));
+        await().until(() -> handledJobs.contains(key(1, 0)));
+        dispatcher.handle(jobClient, job(key(1, 1)));
+
+        // when
+        // the job worker has a single thread that passes on one job after the other
+        final ActivatedJob overQuotaJob = job(key(1, 2));
+        dispatcher.handle(jobClient, overQuotaJob);
+        dispatcher.handle(jobClient, job(key(2, 0)));
+
+        // then
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(handledJobs).containsExactly(key(1, 0), key(2, 0)));
+        verify(jobClient.newFailCommand(overQuotaJob)).retries(3);
+        verify(jobClient.newFailCommand(overQuotaJob).retries(3)).retryBackoff(Duration.ofMillis(100));
+        assertThat(dispatcher.queuedJobs(1)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldBlockJobWorkerInsteadOfFailingJobsWhenAllQueuesAreFull() throws Exception {
+        // given
+        dispatcher = new PartitionAwareJobDispatcher(this::blockingHandler, 1, 1, 1, 2);
+
+        dispatcher.handle(jobClient, job(key(1, 0)));
+        await().until(() -> handledJobs.contains(key(1, 0)));
+        dispatcher.handle(jobClient, job(key(1, 1)));
+        dispatcher.handle(jobClient, job(key(2, 0)));
+
+        // when
+        // the job worker's thread passes on the next job, it counts as active until handle() returns
+        final CompletableFuture<Void> passedOn = CompletableFuture.runAsync(
+                () -> dispatcher.handle(jobClient, job(key(3, 0))));
+
+        // then
+        assertThat(passedOn).failsWithin(Duration.ofMillis(200)).withThrowableOfType(TimeoutException.class);
+        verify(jobClient, never()).newFailCommand(any(ActivatedJob.class));
+
+        releaseHandlers.countDown();
+        passedOn.get(5, TimeUnit.SECONDS);
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(handledJobs)
+                .containsExactlyInAnyOrder(key(1, 0), key(1, 1), key(2, 0), key(3, 0)));
+        verify(jobClient, never()).newFailCommand(any(ActivatedJob.class));
+    }
+
+    @Test
+    void shouldGiveBackBlockedJobWhenClosed() throws Exception {
+        // given
+        dispatcher = new PartitionAwareJobDispatcher(this::blockingHandler, 1, 1, 1, 1);
+
+        dispatcher.handle(jobClient, job(key(1, 0)));
+        await().until(() -> handledJobs.contains(key(1, 0)));
+        dispatcher.handle(jobClient, job(key(1, 1)));
+
+        final ActivatedJob blockedJob = job(key(2, 0));
+        // the deep stubs are not created thread-safe, create them before the threads give back jobs
+        final var giveBackCommand = jobClient.newFailCommand(blockedJob).retries(3);
+        final CompletableFuture<Void> passedOn = CompletableFuture.runAsync(() -> dispatcher.handle(jobClient, blockedJob));
+        assertThat(passedOn).failsWithin(Duration.ofMillis(100)).withThrowableOfType(TimeoutException.class);
+
+        // when
+        final CompletableFuture<Void> closed = CompletableFuture.runAsync(dispatcher::close);
+
+        // then
+        passedOn.get(5, TimeUnit.SECONDS);
+        releaseHandlers.countDown();
+        closed.get(5, TimeUnit.SECONDS);
+        assertThat(handledJobs).doesNotContain(key(2, 0));
+        verify(giveBackCommand).retryBackoff(Duration.ofMillis(100));
+    }
+
+    @Test
+    void shouldKeepHandlerThreadIfFailCommandIsRejected() {
+        // given
+        final ActivatedJob failingJob = job(key(1, 0));
+        when(jobClient.newFailCommand(failingJob).retries(2).errorMessage("store not available").send().join())
+                .thenThrow(new IllegalStateException("job already timed out"));
+        dispatcher = new PartitionAwareJobDispatcher((client, job) -> {
+            handledJobs.add(job.getKey());
+            if (job == failingJob) {
+                throw new AssertionError("store not available");
+            }
+        }, 1, 1, 10, 10);
+
+        // when
+        dispatcher.handle(jobClient, failingJob);
+        dispatcher.handle(jobClient, job(key(1, 1)));
+
+        // then
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(handledJobs).containsExactly(key(1, 0), key(1, 1)));
+    }
+
+    @Test
+    void shouldSkipJobWhoseDeadlinePassedInQueue() {
+        // given
+        dispatcher = new PartitionAwareJobDispatcher(this::blockingHandler, 1, 1, 10, 10);
+        dispatcher.handle(jobClient, job(key(1, 0)));
+        await().until(() -> handledJobs.contains(key(1, 0)));
+
+        final ActivatedJob timedOutJob = job(key(1, 1));
+        when(timedOutJob.getDeadline()).thenReturn(System.currentTimeMillis() + 50);
+        dispatcher.handle(jobClient, timedOutJob);
+        dispatcher.handle(jobClient, job(key(1, 2)));
+
+        // when
+        await().pollDelay(Duration.ofMillis(100)).until(() -> true);
+        releaseHandlers.countDown();
+
+        // then
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(handledJobs).containsExactly(key(1, 0), key(1, 2)));
+        verify(jobClient, never()).newFailCommand(timedOutJob);
+    }
+
+    private void blockingHandler(final JobClient client, final ActivatedJob job) throws Exception {
+        handledJobs.add(job.getKey());
+        releaseHandlers.await();
+    }
+
+    private static long key(final int partitionId, final long counter) {
+        return ((long) partitionId << 51) + counter;
+    }
+
+    private static ActivatedJob job(final long key) {
+        final ActivatedJob job = mock(ActivatedJob.class);
+        when(job.getKey()).thenReturn(key);
+        when(job.getRetries()).thenReturn(3);
+        when(job.getDeadline()).thenReturn(Long.MAX_VALUE);
+        return job;
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.worker;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the garbage that the pooled and the map-based handlers create per job, with the
+ * allocation counter of the current thread. The absolute numbers depend on the JIT compiler (e.g.
+ * escape analysis), so they are only measured by the {@link JobHandlerBenchmark}. This test guards
+ * against a pooled handler that loses most of its advantage.
+ */
+public class PooledJobHandlerAllocationTest {
+
+    private static final int WARM_UP_JOBS = 20_000;
+    private static final int MEASURED_JOBS = 100_000;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final JobView job = new JobView();
+    private final CompletionBuilder completion = new CompletionBuilder();
+    private long elementInstanceKey;
+
+    @Test
+    void shouldCreateAccountsWithLessGarbageThanMapBasedHandler() throws Exception {
+        // given
+        final var accounts = new JobHandlerBenchmark.DiscardingAccountService();
+        final var handler = new CreateAccountJobHandler(accounts);
+        final var mapBasedHandlers = new JobHandlerBenchmark.MapBasedHandlers(accounts);
+
+        // when
+        final double pooledHandler = bytesPerJob(() -> {
+            job.wrap(1, ++elementInstanceKey, CreateAccountJobHandler.JOB_TYPE, 3, JobHandlerBenchmark.CREATE_ACCOUNT_VARIABLES);
+            handler.handle(job, completion.reset());
+        });
+        final double pooledHandlerWithCommandPayload = bytesPerJob(() -> {
+            job.wrap(1, ++elementInstanceKey, CreateAccountJobHandler.JOB_TYPE, 3, JobHandlerBenchmark.CREATE_ACCOUNT_VARIABLES);
+            handler.handle(job, completion.reset());
+            completion.variables().toString();
+        });
+        final double mapBasedHandler = bytesPerJob(
+                () -> mapBasedHandlers.createAccount(++elementInstanceKey, JobHandlerBenchmark.CREATE_ACCOUNT_VARIABLES));
+
+        // then
+        assertThat(pooledHandler).isLessThan(mapBasedHandler / 2);
+        assertThat(pooledHandlerWithCommandPayload).isLessThan(mapBasedHandler / 2);
+    }
+
+    @Test
+    void shouldSubscribeWithLessGarbageThanMapBasedHandler() throws Exception {
+        // given
+        final var handler = new SubscribeJobHandler(new JobHandlerBenchmark.DiscardingAccountService(), (accountId, email) -> {});
+        final var mapBasedHandlers = new JobHandlerBenchmark.MapBasedHandlers(new JobHandlerBenchmark.DiscardingAccountService());
+
+        // when
+        final double pooledHandler = bytesPerJob(() -> {
+            job.wrap(1, 1, SubscribeJobHandler.JOB_TYPE, 3, JobHandlerBenchmark.SUBSCRIBE_VARIABLES);
+            handler.handle(job, completion.reset());
+        });
+        final double mapBasedHandler = bytesPerJob(
+                () -> mapBasedHandlers.subscribe(JobHandlerBenchmark.SUBSCRIBE_VARIABLES));
+
+        // then
+        assertThat(pooledHandler).isLessThan(mapBasedHandler / 2);
+    }
+
+    private double bytesPerJob(final Job job) throws Exception {
+        for (int i = 0; i < WARM_UP_JOBS; i++) {
+            job.run();
+        }
+
+        final long threadId = Thread.currentThread().threadId();
+        final long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_JOBS; i++) {
+            job.run();
+        }
+        final long after = threads.getThreadAllocatedBytes(threadId);
+        return (double) (after - before) / MEASURED_JOBS;
+    }
+
+    @FunctionalInterface
+    private interface Job {
+        void run() throws Exception;
+    }
+}
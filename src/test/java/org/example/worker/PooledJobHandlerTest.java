@@ -0,0 +1,265 @@
+package org.example.worker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.camunda.client.api.response.ActivatedJob;
+import io.camunda.client.api.worker.JobClient;
+import org.example.account.AccountStatus;
+import org.example.account.CachedAccountService;
+import org.example.account.InMemoryAccountService;
+import org.example.model.Account;
+import org.example.model.AccountServiceException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PooledJobHandlerTest {
+
+    private static final String SIGN_UP_FORM = """
+            {"signUpForm": {"userName": "De\\"mo", "email": "demo@camunda.com", "subscribeToNewsletter": true}}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final InMemoryAccountService accounts = new InMemoryAccountService();
+    private final JobView job = new JobView();
+    private final CompletionBuilder completion = new CompletionBuilder();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCreateAccountFromSignUpForm() throws Exception {
+        // given
+        final var handler = new CreateAccountJobHandler(accounts);
+        job.wrap(1, 7, CreateAccountJobHandler.JOB_TYPE, 3, SIGN_UP_FORM);
+
+        // when
+        handler.handle(job, completion);
+
+        // then
+        assertThat(completion.isError()).isFalse();
+
+        final Map<String, Object> account = (Map<String, Object>) objectMapper
+                .readValue(completion.variables().toString(), Map.class)
+                .get("account");
+        assertThat(account)
+                .containsEntry("id", "account-id-7")
+                .containsEntry("userName", "De\"mo")
+                .containsEntry("email", "demo@camunda.com")
+                .containsEntry("subscribeToNewsletter", true);
+        assertThat((String) account.get("activationCode")).hasSize(16);
+
+        assertThat(accounts.find("account-id-7")).contains(new Account("account-id-7", "De\"mo",
+                "demo@camunda.com", true, (String) account.get("activationCode")));
+        assertThat(accounts.status("account-id-7")).contains(AccountStatus.PENDING);
+    }
+
+    @Test
+    void shouldCompleteRedeliveredJobWithExistingAccount() throws Exception {
+        // given
+        final var handler = new CreateAccountJobHandler(accounts);
+        job.wrap(1, 7, CreateAccountJobHandler.JOB_TYPE, 3, SIGN_UP_FORM);
+        handler.handle(job, completion);
+        final String firstCompletion = completion.variables().toString();
+
+        // when
+        // the job timed out and was activated again with a new job key
+        job.wrap(2, 7, CreateAccountJobHandler.JOB_TYPE, 3, SIGN_UP_FORM);
+        handler.handle(job, completion.reset());
+
+        // then
+        assertThat(completion.isError()).isFalse();
+        assertThat(completion.variables().toString()).isEqualTo(firstCompletion);
+        assertThat(accounts.size()).isOne();
+        assertThat(accounts.status("account-id-7")).contains(AccountStatus.PENDING);
+    }
+
+    @Test
+    void shouldRejectSignUpWithInvalidEmail() throws Exception {
+        // given
+        final var handler = new CreateAccountJobHandler(accounts);
+        job.wrap(1, 1, CreateAccountJobHandler.JOB_TYPE, 3, """
+                {"signUpForm": {"userName": "Demo", "email": "invalid", "subscribeToNewsletter": false}}
+                """);
+
+        // when
+        handler.handle(job, completion);
+
+        // then
+        assertThat(completion.isError()).isTrue();
+        assertThat(completion.errorCode()).isEqualTo(CreateAccountJobHandler.INVALID_ACCOUNT_ERROR);
+        assertThat(completion.variables().toString()).isEqualTo("{\"rejectionReason\":\"invalid email\"}");
+        assertThat(accounts.size()).isZero();
+    }
+
+    @Test
+    void shouldReadVariablesFromRawJson() {
+        // given
+        job.wrap(1, 1, "test", 3, """
+                {
+                  "list": [1, {"id": "nested"}],
+                  "account": {"note": "a \\u0041, b", "id": "account-id-0001", "number": -42, "missing": null}
+                }
+                """);
+
+        // when
+        final VariableView id = job.variable("account.id");
+        final VariableView note = job.variable("account.note");
+        final VariableView number = job.variable("account.number");
+        final VariableView missing = job.variable("account.missing");
+        final VariableView notDefined = job.variable("account.notDefined");
+        final VariableView account = job.variable("account");
+
+        // then
+        assertThat(id.contentEquals("account-id-0001")).isTrue();
+        assertThat(note.toString()).isEqualTo("a A, b");
+        assertThat(number.asLong()).isEqualTo(-42);
+        assertThat(missing.isPresent()).isTrue();
+        assertThat(missing.isNull()).isTrue();
+        assertThat(notDefined.isPresent()).isFalse();
+        assertThat(account.isString()).isFalse();
+        assertThat(account.toString()).startsWith("{\"note\"").endsWith("}");
+    }
+
+    @Test
+    void shouldReuseViewsForNextJob() {
+        // given
+        job.wrap(1, 1, "test", 3, "{\"account\": {\"id\": \"first\"}}");
+        final VariableView first = job.variable("account.id");
+
+        // when
+        job.wrap(2, 2, "test", 3, "{\"account\": {\"id\": \"second\"}}");
+        final VariableView second = job.variable("account.id");
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(second.toString()).isEqualTo("second");
+    }
+
+    @Test
+    void shouldNotPutVariablesAfterTheyWereRead() {
+        // given
+        completion.put("a", 1L);
+        completion.variables();
+
+        // when / then
+        assertThatThrownBy(() -> completion.put("b", 2L)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldSubscribeAccountAndCompleteJob() throws Exception {
+        // given
+        final JobClient jobClient = mock(JobClient.class, RETURNS_DEEP_STUBS);
+        final List<String> subscribed = new ArrayList<>();
+        final var adapter = new PooledJobHandlerAdapter(
+                new SubscribeJobHandler(accounts, (accountId, email) -> subscribed.add(accountId + " " + email)));
+
+        // when
+        adapter.handle(jobClient, job(10, """
+                {"account": {"id": "account-id-0001", "email": "demo@camunda.com"}}
+                """));
+
+        // then
+        assertThat(subscribed).containsExactly("account-id-0001 demo@camunda.com");
+        verify(jobClient.newCompleteCommand(10)).variables("{}");
+    }
+
+    @Test
+    void shouldSubscribeAccountWithEmailFromStore() throws Exception {
+        // given
+        accounts.create(new Account("account-id-0001", "Demo", "demo@camunda.com", true, "activation-code"));
+        final JobClient jobClient = mock(JobClient.class, RETURNS_DEEP_STUBS);
+        final List<String> subscribed = new ArrayList<>();
+        final var adapter = new PooledJobHandlerAdapter(
+                new SubscribeJobHandler(accounts, (accountId, email) -> subscribed.add(accountId + " " + email)));
+
+        // when
+        adapter.handle(jobClient, job(10, """
+                {"account": {"id": "account-id-0001"}}
+                """));
+
+        // then
+        assertThat(subscribed).containsExactly("account-id-0001 demo@camunda.com");
+    }
+
+    @Test
+    void shouldActivateAccountThroughCache() throws Exception {
+        // given
+        final var cachedAccounts = new CachedAccountService(accounts, 10);
+        cachedAccounts.create(new Account("account-id-0001", "Demo", "demo@camunda.com", true, "activation-code"));
+        cachedAccounts.find("account-id-0001");
+        final JobClient jobClient = mock(JobClient.class, RETURNS_DEEP_STUBS);
+        final var adapter = new PooledJobHandlerAdapter(new ActivateAccountJobHandler(cachedAccounts));
+
+        // when
+        adapter.handle(jobClient, job(10, """
+                {"account": {"id": "account-id-0001"}}
+                """));
+
+        // then
+        verify(jobClient.newCompleteCommand(10)).variables("{}");
+        assertThat(accounts.status("account-id-0001")).contains(AccountStatus.ACTIVE);
+        assertThat(cachedAccounts.find("account-id-0001")).isPresent();
+    }
+
+    @Test
+    void shouldDeleteAccountAndInvalidateCache() throws Exception {
+        // given
+        final var cachedAccounts = new CachedAccountService(accounts, 10);
+        cachedAccounts.create(new Account("account-id-0001", "Demo", "demo@camunda.com", true, "activation-code"));
+        assertThat(cachedAccounts.find("account-id-0001")).isPresent();
+        final JobClient jobClient = mock(JobClient.class, RETURNS_DEEP_STUBS);
+        final var adapter = new PooledJobHandlerAdapter(new DeleteAccountJobHandler(cachedAccounts));
+
+        // when
+        adapter.handle(jobClient, job(10, """
+                {"account": {"id": "account-id-0001"}}
+                """));
+
+        // then
+        verify(jobClient.newCompleteCommand(10)).variables("{}");
+        assertThat(accounts.status("account-id-0001")).contains(AccountStatus.DELETED);
+        assertThat(cachedAccounts.find("account-id-0001")).isEmpty();
+    }
+
+    @Test
+    void shouldNotActivateDeletedAccount() {
+        // given
+        accounts.create(new Account("account-id-0001", "Demo", "demo@camunda.com", true, "activation-code"));
+        accounts.delete("account-id-0001");
+        final var handler = new ActivateAccountJobHandler(accounts);
+        job.wrap(1, 1, ActivateAccountJobHandler.JOB_TYPE, 3, """
+                {"account": {"id": "account-id-0001"}}
+                """);
+
+        // when / then
+        assertThatThrownBy(() -> handler.handle(job, completion)).isInstanceOf(AccountServiceException.class);
+        assertThat(accounts.status("account-id-0001")).contains(AccountStatus.DELETED);
+    }
+
+    @Test
+    void shouldThrowBpmnErrorThroughAdapter() throws Exception {
+        // given
+        final JobClient jobClient = mock(JobClient.class, RETURNS_DEEP_STUBS);
+        final var adapter = new PooledJobHandlerAdapter(new CreateAccountJobHandler(accounts));
+
+        // when
+        adapter.handle(jobClient, job(10, "{\"signUpForm\": {\"email\": \"invalid\"}}"));
+
+        // then
+        verify(jobClient.newThrowErrorCommand(10)).errorCode(CreateAccountJobHandler.INVALID_ACCOUNT_ERROR);
+    }
+
+    private static ActivatedJob job(final long key, final String variables) {
+        final ActivatedJob job = mock(ActivatedJob.class);
+        when(job.getKey()).thenReturn(key);
+        when(job.getVariables()).thenReturn(variables);
+        return job;
+    }
+}
@@ -26,6 +26,7 @@ import io.camunda.zeebe.process.test.assertions.BpmnAssert;
 import io.camunda.zeebe.spring.test.ZeebeSpringTest;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -36,6 +37,7 @@ import java.util.concurrent.TimeoutException;
 
 import static java.util.Collections.singletonMap;
 
+@Tag("engine")
 @SpringBootTest
 @ZeebeSpringTest
 public class PullRequestProcessTest {